@@ -0,0 +1,101 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j.benchmarks;
+
+import com.codesityou.money4j.Currency;
+import com.codesityou.money4j.CurrencyConverter;
+import com.codesityou.money4j.Money;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares conversion of an array of amounts row by row with batch conversions. 
+ * Run it with -prof gc: gc.alloc.rate.norm of single and batch shows, that the long path does not allocate
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ConversionBenchmark {
+    
+    @Param({"1000", "1000000"})
+    public int size;
+    
+    private final Currency eur = Currency.of("EUR");
+    private final Currency jpy = Currency.of("JPY");
+    private CurrencyConverter converter;
+    private long[] source;
+    private long[] target;
+    private Money money;
+    
+    @Setup
+    public void setUp(){
+        this.converter = CurrencyConverter.create();
+        this.converter.setRate(this.eur, this.jpy, new BigDecimal("162.4571"));
+        Random random = new Random(42);
+        this.source = new long[this.size];
+        for (int i = 0; i < this.size; i++) {
+            this.source[i] = random.nextInt(100_000_000);
+        }
+        this.target = new long[this.size];
+        this.money = Money.ofMinor(this.source[0], this.eur);
+    }
+    
+    @Benchmark
+    public Money single(){
+        return this.converter.convert(this.money, this.jpy, RoundingMode.HALF_EVEN);
+    }
+    
+    @Benchmark
+    public long[] perRow(){
+        for (int i = 0; i < this.size; i++) {
+            Money money = Money.ofMinor(this.source[i], this.eur);
+            this.target[i] = this.converter.convert(money, this.jpy, RoundingMode.HALF_EVEN).toMinorUnits();
+        }
+        return this.target;
+    }
+    
+    @Benchmark
+    public long[] batch(){
+        this.converter.convert(this.source, this.eur, this.target, this.jpy, RoundingMode.HALF_EVEN);
+        return this.target;
+    }
+    
+    @Benchmark
+    public long[] batchParallel(){
+        this.converter.convertParallel(this.source, this.eur, this.target, this.jpy, RoundingMode.HALF_EVEN);
+        return this.target;
+    }
+}
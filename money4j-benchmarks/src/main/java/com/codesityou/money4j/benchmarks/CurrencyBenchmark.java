@@ -0,0 +1,66 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j.benchmarks;
+
+import com.codesityou.money4j.Currency;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Currency lookups by alphabetic and numeric codes
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class CurrencyBenchmark {
+    
+    @Param({"EUR", "JPY", "KWD"})
+    public String code;
+    
+    private int numericCode;
+    
+    @Setup
+    public void setUp(){
+        this.numericCode = Currency.of(this.code).getNumericCode();
+    }
+    
+    @Benchmark
+    public Currency of(){
+        return Currency.of(this.code);
+    }
+    
+    @Benchmark
+    public Currency ofNumeric(){
+        return Currency.ofNumeric(this.numericCode);
+    }
+}
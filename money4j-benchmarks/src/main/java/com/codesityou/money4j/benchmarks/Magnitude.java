@@ -0,0 +1,64 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j.benchmarks;
+
+import java.math.BigDecimal;
+
+/**
+ * Magnitudes of amounts, used as a benchmark parameter. 
+ * The representation of Money depends on the magnitude, so each operation is measured for all of them
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public enum Magnitude {
+    
+    /**
+     * A typical price, far from the long range limits
+     */
+    SMALL("1234.56"),
+    
+    /**
+     * An amount, which fits into a long (2^62 + 100 minor units), but its sum with an amount, 
+     * which is one major unit less, does not
+     */
+    NEAR_LONG_MAX("46116860184273880.04"),
+    
+    /**
+     * An amount, which does not fit into a long, but fits into 128 bits
+     */
+    HUGE("123456789012345678901234567.89"),
+    
+    /**
+     * An amount above 2^127 minor units, which is kept in a BigInteger
+     */
+    WIDE("1234567890123456789012345678901234567890.12");
+    
+    private final BigDecimal value;
+    
+    private Magnitude(String value){
+        this.value = new BigDecimal(value);
+    }
+    
+    /**
+     * Returns an amount of this magnitude in major currency units
+     * @return BigDecimal value
+     */
+    public BigDecimal getValue(){
+        return this.value;
+    }
+}
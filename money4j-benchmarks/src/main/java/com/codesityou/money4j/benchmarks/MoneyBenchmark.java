@@ -0,0 +1,130 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j.benchmarks;
+
+import com.codesityou.money4j.Currency;
+import com.codesityou.money4j.Money;
+import com.codesityou.money4j.MoneyCalculator;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures Money factory methods, arithmetic, comparison and formatting
+ * for amounts of different magnitudes
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class MoneyBenchmark {
+    
+    @Param({"SMALL", "NEAR_LONG_MAX", "HUGE", "WIDE"})
+    public Magnitude magnitude;
+    
+    private Currency currency;
+    private double doubleValue;
+    private BigDecimal decimalValue;
+    private Money money;
+    private Money other;
+    
+    @Setup
+    public void setUp(){
+        this.currency = Currency.of("EUR");
+        this.decimalValue = this.magnitude.getValue();
+        this.doubleValue = this.decimalValue.doubleValue();
+        this.money = Money.of(this.decimalValue, this.currency);
+        // for NEAR_LONG_MAX, money + other overflows a long, so plus() measures the fallback
+        this.other = Money.of(this.decimalValue.subtract(BigDecimal.ONE), this.currency);
+    }
+    
+    @Benchmark
+    public Money ofDouble(){
+        return Money.of(this.doubleValue, this.currency);
+    }
+    
+    @Benchmark
+    public Money ofDoubleHalfEven(){
+        return Money.of(this.doubleValue, this.currency, RoundingMode.HALF_EVEN);
+    }
+    
+    @Benchmark
+    public Money ofBigDecimal(){
+        return Money.of(this.decimalValue, this.currency);
+    }
+    
+    @Benchmark
+    public Money plus(){
+        return this.money.plus(this.other);
+    }
+    
+    @Benchmark
+    public Money minus(){
+        return this.money.minus(this.other);
+    }
+    
+    @Benchmark
+    public Money multiply(){
+        return this.money.multiply(3);
+    }
+    
+    @Benchmark
+    public Money divide(){
+        return this.money.divide(7);
+    }
+    
+    @Benchmark
+    public Money chain(){
+        return this.money.multiply(3).minus(this.other).plus(this.money).plus(this.other);
+    }
+    
+    @Benchmark
+    public Money calculatorChain(){
+        return MoneyCalculator.of(this.money).multiply(3).subtract(this.other).add(this.money).add(this.other).toMoney();
+    }
+    
+    @Benchmark
+    public int compareTo(){
+        return this.money.compareTo(this.other);
+    }
+    
+    @Benchmark
+    public BigDecimal toBigDecimal(){
+        return this.money.toBigDecimal();
+    }
+    
+    @Benchmark
+    public String beautify(){
+        return this.money.beautify();
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * A conversion from one currency to another with a fixed rate and a rounding mode. 
+ * All parameters are computed once, so a conversion of an array is a tight loop of a multiplication 
+ * and a rounded division, unless an intermediate product does not fit into a long.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class Conversion {
+    
+    /**
+     * The largest ratio of currency factors, for which Rate.ONE * ratio is less than 2^62
+     */
+    private static final long MAX_RATIO = ((1L << 62) - 1) / Rate.ONE;
+    
+    private final Currency to;
+    private final RoundingMode mode;
+    private final long rate;
+    private final long multiplier;
+    /**
+     * fromFactor / toFactor, if the target currency has fewer decimal digits, otherwise 1
+     */
+    private final long ratio;
+    /**
+     * Rate.ONE * ratio, if it is less than 2^62, which Rounding.divide() supports
+     */
+    private final long divisor;
+    /**
+     * rate * multiplier, if it fits into a long
+     */
+    private final long factor;
+    /**
+     * The maximum absolute amount, which can be multiplied by the factor without an overflow, or -1
+     */
+    private final long safe;
+    
+    /**
+     * @param from source currency
+     * @param to target currency
+     * @param rate positive fixed-point rate with 10 decimal digits
+     * @param mode rounding mode
+     */
+    Conversion(Currency from, Currency to, long rate, RoundingMode mode){
+        this.to = to;
+        this.mode = mode;
+        this.rate = rate;
+        // result = minor * rate * toFactor / (Rate.ONE * fromFactor), factors are powers of ten
+        if (to.getFactor() >= from.getFactor()) {
+            this.multiplier = to.getFactor() / from.getFactor();
+            this.ratio = 1;
+        } else {
+            this.multiplier = 1;
+            this.ratio = from.getFactor() / to.getFactor();
+        }
+        long product = rate * this.multiplier;
+        // the long path needs both the factor and the divisor, otherwise all amounts use convertExact()
+        boolean overflows = product / this.multiplier != rate || this.ratio > MAX_RATIO;
+        this.factor = overflows ? 0 : product;
+        this.divisor = overflows ? 1 : Rate.ONE * this.ratio;
+        this.safe = overflows ? -1 : Long.MAX_VALUE / product;
+    }
+    
+    /**
+     * Converts the value
+     * @param money value in the source currency
+     * @return a new Money object in the target currency
+     */
+    Money convert(Money money){
+        if (money.isCompact()) {
+            long minor = money.toMinorUnits();
+            if (minor <= this.safe && minor >= -this.safe) {
+                return Money.valueOf(Rounding.divide(minor * this.factor, this.divisor, this.mode), this.to);
+            }
+        }
+        return Money.valueOf(this.convertExact(money.toBigInteger()), this.to);
+    }
+    
+    /**
+     * Converts the amount in minor units
+     * @param minor amount in minor units of the source currency
+     * @return amount in minor units of the target currency
+     * @throws ArithmeticException if the result does not fit into a long
+     */
+    long convert(long minor){
+        if (minor <= this.safe && minor >= -this.safe) {
+            return Rounding.divide(minor * this.factor, this.divisor, this.mode);
+        }
+        BigInteger result = this.convertExact(BigInteger.valueOf(minor));
+        if (result.bitLength() > 63) throw new ArithmeticException("Converted amount does not fit into a long");
+        return result.longValue();
+    }
+    
+    /**
+     * Converts amounts in minor units. The source and target arrays can be the same array
+     * @param source amounts in minor units of the source currency
+     * @param target array for amounts in minor units of the target currency
+     * @param from index of the first amount
+     * @param to index after the last amount
+     * @throws ArithmeticException if a result does not fit into a long
+     */
+    void convert(long[] source, long[] target, int from, int to){
+        long factor = this.factor;
+        long safe = this.safe;
+        long divisor = this.divisor;
+        RoundingMode mode = this.mode;
+        for (int i = from; i < to; i++) {
+            long minor = source[i];
+            target[i] = (minor <= safe && minor >= -safe) ? Rounding.divide(minor * factor, divisor, mode) : this.convert(minor);
+        }
+    }
+    
+    private BigInteger convertExact(BigInteger minor){
+        BigInteger product = minor.multiply(BigInteger.valueOf(this.rate)).multiply(BigInteger.valueOf(this.multiplier));
+        BigDecimal divisor = BigDecimal.valueOf(Rate.ONE).multiply(BigDecimal.valueOf(this.ratio));
+        return new BigDecimal(product).divide(divisor, 0, this.mode).toBigIntegerExact();
+    }
+}
@@ -27,4 +27,12 @@ public final class CurrenciesDontMatchException extends IllegalArgumentException
     CurrenciesDontMatchException(){
         super("Currencies do not match!");
     }
+    
+    /**
+     * Fills in the stack trace, unless stack traces are disabled with -Dmoney4j.stackTraces=false
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.ENABLED ? super.fillInStackTrace() : this;
+    }
 }
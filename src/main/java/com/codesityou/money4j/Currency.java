@@ -16,9 +16,13 @@
 
 package com.codesityou.money4j;
 
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.text.NumberFormat;
 import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The class represents an information about the Currency object
@@ -28,23 +32,68 @@ import java.util.Locale;
  */
 public final class Currency implements Serializable {
 
+    /**
+     * The maximum number of decimal digits: 10^18 is the largest power of ten, which fits into a long
+     */
+    static final int MAX_DECIMAL_PARTS = 18;
+    
     private final String code;
+    private final int numericCode;
     private final int decimalParts;
-    private final int factor;
+    private final long factor;
     private final Locale locale;
+    private final int ordinal;
+    
+    /**
+     * Formatters are cached per currency: the default locale formatter is kept in the field, 
+     * formatters for other locales are kept in the map
+     */
+    private transient volatile MoneyFormatter formatter;
+    private final transient ConcurrentMap<Locale, MoneyFormatter> formatters = new ConcurrentHashMap<>(4);
+    /**
+     * Cached Money instances with small values, created on demand. See Money.valueOf()
+     */
+    private transient volatile Money[] smallValues;
     
     /**
-     * Private constructor, use of() static factory method in order to create a new instance
+     * Private constructor, use of() static factory method in order to get an instance.
+     * Instances are created only by CurrencyRegistry, so currencies can be compared by reference
      * @param code Currency ISO-4217 three letter code
+     * @param numericCode Currency ISO-4217 numeric code
      * @param decimalParts a number of decimal digits
      * @param factor a division factor
      * @param locale a default currency locale
+     * @param ordinal an index of the currency in the registry
      */
-    private Currency(String code, int decimalParts, int factor, Locale locale){
+    private Currency(String code, int numericCode, int decimalParts, long factor, Locale locale, int ordinal){
         this.code = code;
+        this.numericCode = numericCode;
         this.decimalParts = decimalParts;
         this.factor = factor;
         this.locale = locale;
+        this.ordinal = ordinal;
+    }
+    
+    /**
+     * Creates a new instance. Used by CurrencyRegistry
+     * @param code Currency ISO-4217 three letter code
+     * @param numericCode Currency ISO-4217 numeric code
+     * @param decimalParts a number of decimal digits, from 0 to 18 (e.g. 8 for satoshis, 18 for wei)
+     * @param locale a default currency locale
+     * @param ordinal an index of the currency in the registry
+     * @return a new Currency instance
+     * @throws IllegalArgumentException if the number of decimal digits is out of the range
+     */
+    static Currency create(String code, int numericCode, int decimalParts, Locale locale, int ordinal){
+        if (decimalParts < 0 || decimalParts > MAX_DECIMAL_PARTS) {
+            throw new IllegalArgumentException("Currency " + code + " has " + decimalParts + " decimal digits, "
+                    + "the maximum is " + MAX_DECIMAL_PARTS);
+        }
+        long factor = 1;
+        for (int i = 0; i < decimalParts; i++){
+            factor *= 10;
+        }
+        return new Currency(code, numericCode, decimalParts, factor, locale, ordinal);
     }
     
     /**
@@ -55,6 +104,14 @@ public final class Currency implements Serializable {
         return this.code;
     }
     
+    /**
+     * Returns a currency ISO 4217 numeric code (e.g. 978 for EUR, 840 for USD etc)
+     * @return numeric code
+     */
+    public int getNumericCode() {
+        return this.numericCode;
+    }
+    
     /**
      * Returns a currency symbol, used by Money.beautify()
      * @return String
@@ -72,56 +129,148 @@ public final class Currency implements Serializable {
     }
     
     /**
-     * Returns a currency multiplication factor. Used by Money class
+     * Returns a currency multiplication factor (10 ^ number of decimal digits). Used by Money class
      * @return factor
      */
-    int getFactor(){
+    long getFactor(){
         return this.factor;
     }
     
     /**
-     * Returns a currency NumberFormat. Used by Money.beautify()
-     * @return Number format
+     * Returns an index of the currency in the registry. Used by classes, 
+     * which store currencies in arrays
+     * @return ordinal in the range [0, number of currencies)
+     */
+    int getOrdinal(){
+        return this.ordinal;
+    }
+    
+    /**
+     * Returns the cache of Money instances with small values of the currency. Used by Money.valueOf()
+     * @return array, indexed by the value minus the lowest cached value
+     */
+    Money[] getSmallValues() {
+        Money[] result = this.smallValues;
+        if (result == null){
+            // a race is harmless: it only loses instances, cached in the other array
+            result = new Money[Money.CACHE_HIGH - Money.CACHE_LOW + 1];
+            this.smallValues = result;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a formatter, which uses the default currency locale. Used by Money.beautify()
+     * @return cached formatter
+     */
+    MoneyFormatter getFormatter() {
+        MoneyFormatter result = this.formatter;
+        if (result == null){
+            // a race is harmless: formatters are immutable and equal
+            result = new MoneyFormatter(this, this.locale);
+            this.formatter = result;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns a formatter, which uses the rules of the given locale. Used by Money.beautify(Locale)
+     * @param locale locale of the number format
+     * @return cached formatter
      */
-    NumberFormat getCurrencyFormat() {
-        NumberFormat nf = NumberFormat.getInstance(this.locale);
-        nf.setMinimumFractionDigits(this.decimalParts);
-        nf.setMaximumFractionDigits(this.decimalParts);
-        return nf;
+    MoneyFormatter getFormatter(Locale locale) {
+        if (locale.equals(this.locale)) return getFormatter();
+        MoneyFormatter result = this.formatters.get(locale);
+        if (result == null){
+            result = this.formatters.computeIfAbsent(locale, l -> new MoneyFormatter(this, l));
+        }
+        return result;
     }
     
     /**
-     * A static factory method which creates a new instance of the Currency class with
+     * A static factory method which returns the canonical instance of the Currency class with
      * the ISO-4217 currency code. Refer to https://www.iban.com/currency-codes.
-     * 
-     * Warning! Not all currency codes are yet supported by the library!
+     * The same instance is returned for the same code on every call.
      * 
      * @param currencyCode Three letter upper case ISO-4217 code (e.g. EUR, USD)
-     * @return a new Currency instance
+     * @return the Currency instance
      * @throws UnknownCurrencyException if the currency code is not registered
      */
     public static Currency of(String currencyCode) throws UnknownCurrencyException {
-        switch (currencyCode){
-            case "EUR":
-                return new Currency("EUR", 2, 100, Locale.GERMANY);
-            case "USD":
-                return new Currency("USD", 2, 100, Locale.US);
-            case "GBP":
-                return new Currency("GBP", 2, 100, Locale.UK);
-            default:
-                throw new UnknownCurrencyException(currencyCode);
-        }        
+        Currency currency = null;
+        if (currencyCode.length() == 3){
+            int packed = CurrencyRegistry.pack(currencyCode.charAt(0), currencyCode.charAt(1), currencyCode.charAt(2));
+            currency = CurrencyRegistry.byPackedCode(packed);
+        }
+        if (currency == null) throw new UnknownCurrencyException(currencyCode);
+        return currency;
+    }
+    
+    /**
+     * A static factory method which returns the canonical instance of the Currency class with
+     * the ISO-4217 numeric currency code (e.g. 978 for EUR, 840 for USD)
+     * 
+     * @param numericCode ISO-4217 numeric code
+     * @return the Currency instance
+     * @throws UnknownCurrencyException if the currency code is not registered
+     */
+    public static Currency ofNumeric(int numericCode) throws UnknownCurrencyException {
+        Currency currency = CurrencyRegistry.byNumericCode(numericCode);
+        if (currency == null) throw new UnknownCurrencyException(String.valueOf(numericCode));
+        return currency;
+    }
+    
+    /**
+     * Returns the canonical instance of the Currency class with the ISO-4217 currency code, 
+     * like Currency.of() does, but does not throw an exception for unknown codes
+     * 
+     * @param currencyCode Three letter upper case ISO-4217 code (e.g. EUR, USD)
+     * @return the Currency instance, or an empty Optional if the currency code is not registered
+     */
+    public static Optional<Currency> find(String currencyCode){
+        if (currencyCode.length() != 3) return Optional.empty();
+        int packed = CurrencyRegistry.pack(currencyCode.charAt(0), currencyCode.charAt(1), currencyCode.charAt(2));
+        return Optional.ofNullable(CurrencyRegistry.byPackedCode(packed));
+    }
+    
+    /**
+     * Returns the canonical instance of the Currency class with the ISO-4217 numeric currency code, 
+     * like Currency.ofNumeric() does, but does not throw an exception for unknown codes
+     * 
+     * @param numericCode ISO-4217 numeric code
+     * @return the Currency instance, or an empty Optional if the currency code is not registered
+     */
+    public static Optional<Currency> findNumeric(int numericCode){
+        return Optional.ofNullable(CurrencyRegistry.byNumericCode(numericCode));
+    }
+    
+    /**
+     * Replaces the object with the serialization proxy, which writes only the currency code
+     * @return Ser proxy
+     */
+    private Object writeReplace(){
+        return new Ser(Ser.CURRENCY_TYPE, this);
+    }
+    
+    /**
+     * Currency objects are deserialized only by the serialization proxy, which resolves canonical instances
+     * @param in input stream
+     * @throws InvalidObjectException always
+     */
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Deserialization is done by the serialization proxy");
     }
     
     /**
      * Checks if two Currency objects are same. 
-     * Two Currency objects are same, if they have same currency code
+     * Two Currency objects are same, if they have same currency code.
+     * As Currency instances are canonical, this is a reference comparison
      * 
      * @param currency other currency object to compare
      * @return true if both are same
      */
     public boolean isSameCurrency (Currency currency){
-        return this.code.equalsIgnoreCase(currency.getCode());
+        return this == currency;
     }
 
     /**
@@ -130,8 +279,14 @@ public final class Currency implements Serializable {
      */
     @Override
     public boolean equals(Object obj) {
-        if (obj instanceof Currency == false) return false;
-        Currency c = (Currency) obj;
-        return this.isSameCurrency(c);
+        return this == obj;
+    }
+
+    /**
+     * An overriden version of the hashCode() method, consistent with equals()
+     */
+    @Override
+    public int hashCode() {
+        return this.code.hashCode();
     }
 }
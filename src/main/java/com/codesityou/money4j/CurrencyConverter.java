@@ -0,0 +1,175 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * The class converts Money objects between currencies, using exchange rates.
+ * 
+ * Rates are kept in an immutable RateSnapshot, as fixed-point longs with 10 decimal digits 
+ * (e.g. 1.0854 is kept as 10854000000). A conversion uses only long arithmetic, unless the intermediate 
+ * product does not fit into a long. Values are rescaled between currencies with different numbers 
+ * of decimal digits (e.g. EUR with 2 digits and JPY with 0 digits).
+ * 
+ * The class is thread safe. An update publishes a new snapshot, so readers never block and never see 
+ * a partially updated table. Use getSnapshot() to convert several values with same rates.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class CurrencyConverter {
+    
+    private final AtomicReference<RateSnapshot> snapshot;
+    
+    /**
+     * Private constructor. Instead, use static factory method create()
+     */
+    private CurrencyConverter(){
+        this.snapshot = new AtomicReference<>(RateSnapshot.empty());
+    }
+    
+    /**
+     * The static factory method, which creates a new converter without rates
+     * 
+     * @return new CurrencyConverter instance
+     */
+    public static CurrencyConverter create(){
+        return new CurrencyConverter();
+    }
+    
+    /**
+     * Sets the exchange rate: 1 unit of from currency = rate units of to currency.
+     * The rate is rounded to 10 decimal digits
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @param rate positive exchange rate (e.g. 1.0854 for EUR/USD)
+     * @throws IllegalArgumentException if the rate is not positive, or too small or too large for 10 decimal digits
+     */
+    public void setRate(Currency from, Currency to, BigDecimal rate){
+        this.setRate(Rate.of(from, to, rate));
+    }
+    
+    /**
+     * Sets the exchange rate between currencies of the rate
+     * 
+     * @param rate exchange rate
+     */
+    public void setRate(Rate rate){
+        this.snapshot.updateAndGet(current -> current.with(rate));
+    }
+    
+    /**
+     * Sets exchange rates at once: readers see either all of them, or none
+     * 
+     * @param rates exchange rates
+     */
+    public void setRates(Collection<Rate> rates){
+        this.snapshot.updateAndGet(current -> current.with(rates));
+    }
+    
+    /**
+     * Returns the current snapshot of rates. The snapshot is not affected by later updates
+     * 
+     * @return RateSnapshot object
+     */
+    public RateSnapshot getSnapshot(){
+        return this.snapshot.get();
+    }
+    
+    /**
+     * Returns the exchange rate: 1 unit of from currency = rate units of to currency
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @return exchange rate with 10 decimal digits, or null if the rate is unknown
+     */
+    public BigDecimal getRate(Currency from, Currency to){
+        long rate = this.snapshot.get().fixedPointRate(from, to);
+        return (rate == 0) ? null : BigDecimal.valueOf(rate, Rate.DECIMAL_DIGITS);
+    }
+    
+    /**
+     * Converts the value to the target currency with the current rates. 
+     * The result is rounded to minor units of the target currency
+     * 
+     * @param money value to convert
+     * @param to target currency
+     * @param mode rounding mode
+     * @return a new Money object in the target currency
+     * @throws UnknownRateException if the exchange rate is not set
+     * @throws ArithmeticException if the mode is UNNECESSARY and the result needs rounding
+     */
+    public Money convert(Money money, Currency to, RoundingMode mode) throws UnknownRateException {
+        return this.snapshot.get().convert(money, to, mode);
+    }
+    
+    /**
+     * Converts amounts in minor units from one currency to another with the current rate.
+     * See RateSnapshot.convert() for details
+     * 
+     * @param source amounts in minor units of the source currency
+     * @param from source currency
+     * @param target array for amounts in minor units of the target currency, not shorter than the source array
+     * @param to target currency
+     * @param mode rounding mode
+     * @throws UnknownRateException if the exchange rate is not set
+     * @throws IllegalArgumentException if the target array is shorter than the source array
+     * @throws ArithmeticException if a result does not fit into a long, or the mode is UNNECESSARY 
+     * and a result needs rounding
+     */
+    public void convert(long[] source, Currency from, long[] target, Currency to, RoundingMode mode) throws UnknownRateException {
+        this.snapshot.get().convert(source, from, target, to, mode);
+    }
+    
+    /**
+     * Converts amounts in minor units from one currency to another with the current rate 
+     * in the common fork join pool. See RateSnapshot.convertParallel() for details
+     * 
+     * @param source amounts in minor units of the source currency
+     * @param from source currency
+     * @param target array for amounts in minor units of the target currency, not shorter than the source array
+     * @param to target currency
+     * @param mode rounding mode
+     * @throws UnknownRateException if the exchange rate is not set
+     * @throws IllegalArgumentException if the target array is shorter than the source array
+     * @throws ArithmeticException if a result does not fit into a long, or the mode is UNNECESSARY 
+     * and a result needs rounding
+     */
+    public void convertParallel(long[] source, Currency from, long[] target, Currency to, RoundingMode mode) throws UnknownRateException {
+        this.snapshot.get().convertParallel(source, from, target, to, mode);
+    }
+    
+    /**
+     * Converts all elements of the vector to the target currency with current rates
+     * 
+     * @param values vector of values
+     * @param to target currency
+     * @param mode rounding mode
+     * @return new single currency MoneyVector instance
+     * @throws UnknownRateException if an exchange rate is not set
+     * @throws ArithmeticException if a result does not fit into a long, or the mode is UNNECESSARY 
+     * and a result needs rounding
+     */
+    public MoneyVector convert(MoneyVector values, Currency to, RoundingMode mode) throws UnknownRateException {
+        return this.snapshot.get().convert(values, to, mode);
+    }
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The registry of all ISO-4217 currencies, known to the library. The table is read from
+ * the currencies.csv resource, when the class is initialized (e.g. by the first call of Currency.of())
+ * 
+ * Currencies are looked up by an index, so no String hashing is performed:
+ * - alphabetic codes are packed into an int in the range [0, 26^3)
+ * - numeric codes are in the range [0, 1000)
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class CurrencyRegistry {
+    
+    private static final String RESOURCE = "currencies.csv";
+    
+    private static final int LETTERS = 26;
+    private static final int CODES = LETTERS * LETTERS * LETTERS;
+    private static final int NUMERIC_CODES = 1000;
+    
+    private static final Currency[] BY_CODE = new Currency[CODES];
+    private static final Currency[] BY_NUMERIC_CODE = new Currency[NUMERIC_CODES];
+    private static final Currency[] BY_ORDINAL;
+    
+    static {
+        List<Currency> currencies = load();
+        BY_ORDINAL = currencies.toArray(new Currency[0]);
+        for (Currency currency : BY_ORDINAL){
+            String code = currency.getCode();
+            BY_CODE[pack(code.charAt(0), code.charAt(1), code.charAt(2))] = currency;
+            BY_NUMERIC_CODE[currency.getNumericCode()] = currency;
+        }
+    }
+    
+    private CurrencyRegistry(){
+    }
+    
+    /**
+     * Packs three upper case ASCII letters into an int
+     * @return packed code, or -1 if any of characters is not an upper case ASCII letter
+     */
+    static int pack(char c0, char c1, char c2){
+        int i0 = c0 - 'A';
+        int i1 = c1 - 'A';
+        int i2 = c2 - 'A';
+        // a negative number or a number >= 26 means a character outside of A-Z
+        if ((i0 | i1 | i2) < 0 || i0 >= LETTERS || i1 >= LETTERS || i2 >= LETTERS) return -1;
+        return (i0 * LETTERS + i1) * LETTERS + i2;
+    }
+    
+    /**
+     * Finds a currency by packed alphabetic code
+     * @param packedCode value, returned by pack()
+     * @return Currency or null, if the code is not registered
+     */
+    static Currency byPackedCode(int packedCode){
+        if (packedCode < 0) return null;
+        return BY_CODE[packedCode];
+    }
+    
+    /**
+     * Finds a currency by ISO-4217 numeric code
+     * @param numericCode numeric code (e.g. 978 for EUR)
+     * @return Currency or null, if the code is not registered
+     */
+    static Currency byNumericCode(int numericCode){
+        if (numericCode < 0 || numericCode >= NUMERIC_CODES) return null;
+        return BY_NUMERIC_CODE[numericCode];
+    }
+    
+    /**
+     * Returns a currency by its ordinal
+     * @param ordinal index of the currency in the registry
+     * @return Currency
+     * @throws ArrayIndexOutOfBoundsException if the ordinal is not valid
+     */
+    static Currency byOrdinal(int ordinal){
+        return BY_ORDINAL[ordinal];
+    }
+    
+    /**
+     * Returns a number of registered currencies. Ordinals are in the range [0, size())
+     * @return number of currencies
+     */
+    static int size(){
+        return BY_ORDINAL.length;
+    }
+    
+    private static List<Currency> load(){
+        List<Currency> currencies = new ArrayList<>(200);
+        try (InputStream stream = CurrencyRegistry.class.getResourceAsStream(RESOURCE)){
+            if (stream == null) throw new IllegalStateException("Resource " + RESOURCE + " is not found");
+            BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.US_ASCII));
+            String line;
+            while ((line = reader.readLine()) != null){
+                if (line.isEmpty() || line.charAt(0) == '#') continue;
+                // code,numeric code,decimal digits,locale
+                String[] columns = line.split(",");
+                String code = columns[0];
+                int numericCode = Integer.parseInt(columns[1]);
+                int decimalParts = Integer.parseInt(columns[2]);
+                Locale locale = Locale.forLanguageTag(columns[3]);
+                currencies.add(Currency.create(code, numericCode, decimalParts, locale, currencies.size()));
+            }
+        } catch (IOException ex){
+            throw new IllegalStateException("Unable to read " + RESOURCE, ex);
+        }
+        return currencies;
+    }
+}
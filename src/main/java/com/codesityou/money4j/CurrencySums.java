@@ -0,0 +1,74 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Mutable sums of Money values of different currencies. Sums are kept in an array, 
+ * indexed by currency ordinals, so no map is used during accumulation. 
+ * The class is not thread safe.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class CurrencySums {
+    
+    private final MinorUnitsAccumulator[] sums = new MinorUnitsAccumulator[CurrencyRegistry.size()];
+    
+    /**
+     * Adds a value to the sum of its currency
+     * @param money Money object
+     */
+    void add(Money money){
+        this.accumulator(money.getCurrency().getOrdinal()).add(money);
+    }
+    
+    /**
+     * Adds sums of the other object (e.g. partial sums of a parallel task)
+     * @param other the other sums
+     */
+    void add(CurrencySums other){
+        for (int ordinal = 0; ordinal < this.sums.length; ordinal++){
+            if (other.sums[ordinal] != null) this.accumulator(ordinal).add(other.sums[ordinal]);
+        }
+    }
+    
+    /**
+     * Returns sums of all currencies, which had at least one value. Currencies are ordered by ordinals
+     * @return new map
+     */
+    Map<Currency, Money> toMap(){
+        Map<Currency, Money> result = new LinkedHashMap<>();
+        for (int ordinal = 0; ordinal < this.sums.length; ordinal++){
+            if (this.sums[ordinal] == null) continue;
+            Currency currency = CurrencyRegistry.byOrdinal(ordinal);
+            result.put(currency, this.sums[ordinal].toMoney(currency));
+        }
+        return result;
+    }
+    
+    private MinorUnitsAccumulator accumulator(int ordinal){
+        MinorUnitsAccumulator accumulator = this.sums[ordinal];
+        if (accumulator == null){
+            accumulator = new MinorUnitsAccumulator();
+            this.sums[ordinal] = accumulator;
+        }
+        return accumulator;
+    }
+}
@@ -0,0 +1,95 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.RoundingMode;
+
+/**
+ * Converts doubles to minor currency units without BigDecimal. 
+ * The double is read as its shortest decimal representation (the same digits as Double.toString), 
+ * which is then scaled by the currency factor and rounded with Rounding
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class DoubleConversion {
+    
+    /**
+     * Returned when the value can not be converted without BigDecimal
+     */
+    static final long NOT_CONVERTED = Long.MIN_VALUE;
+    
+    /**
+     * The largest number of fractional digits: 10^22 is the largest power of ten, which is an exact double
+     */
+    private static final int MAX_DIGITS = 22;
+    
+    /**
+     * The limit of decimal significands. Decimals with up to 15 digits are represented by a unique double, 
+     * so the significand, which restores the double, is its shortest representation
+     */
+    private static final double MAX_SIGNIFICAND = 1e15;
+    
+    private static final double[] DOUBLE_POWERS_OF_TEN = new double[MAX_DIGITS + 1];
+    private static final long[] POWERS_OF_TEN = new long[19];
+    
+    static {
+        double dPower = 1;
+        for (int i = 0; i < DOUBLE_POWERS_OF_TEN.length; i++){
+            DOUBLE_POWERS_OF_TEN[i] = dPower;
+            dPower *= 10;
+        }
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++){
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+    
+    private DoubleConversion(){
+    }
+    
+    /**
+     * Converts a double to minor currency units
+     * @param value double value
+     * @param decimalParts a number of decimal digits of the currency
+     * @param mode rounding mode
+     * @return value in minor units or NOT_CONVERTED, if the double is not finite, has more than 15 significant 
+     * digits, more than 22 fractional digits, or the result does not fit into a long
+     * @throws ArithmeticException if the mode is UNNECESSARY and rounding is necessary
+     */
+    static long toMinorUnits(double value, int decimalParts, RoundingMode mode){
+        for (int digits = 0; digits <= MAX_DIGITS; digits++){
+            double scaled = Math.rint(value * DOUBLE_POWERS_OF_TEN[digits]);
+            // not finite values fail this check as well
+            if (!(Math.abs(scaled) < MAX_SIGNIFICAND)) return NOT_CONVERTED;
+            // both operands are exact, so the quotient is the double nearest to the decimal scaled / 10^digits
+            if (scaled / DOUBLE_POWERS_OF_TEN[digits] != value) continue;
+            long significand = (long) scaled;
+            if (digits > decimalParts) {
+                // the significand is below 10^16, so any larger divisor rounds it the same way
+                int divisor = Math.min(digits - decimalParts, 16);
+                return Rounding.divide(significand, POWERS_OF_TEN[divisor], mode);
+            }
+            long factor = POWERS_OF_TEN[decimalParts - digits];
+            long high = Int128.multiplyHigh(significand, factor);
+            long low = significand * factor;
+            return (high == (low >> 63)) ? low : NOT_CONVERTED;
+        }
+        return NOT_CONVERTED;
+    }
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread safe RateProvider, which keeps rates in memory. Useful for static rates and tests
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class InMemoryRateProvider implements RateProvider {
+    
+    private final ConcurrentMap<Long, Rate> rates = new ConcurrentHashMap<>();
+    
+    /**
+     * Adds or replaces the rate of the pair
+     * @param rate new rate
+     * @return this provider
+     */
+    public InMemoryRateProvider put(Rate rate){
+        this.rates.put(key(rate.getFrom(), rate.getTo()), rate);
+        return this;
+    }
+    
+    /**
+     * Removes the rate of the pair
+     * @param from source currency
+     * @param to target currency
+     * @return this provider
+     */
+    public InMemoryRateProvider remove(Currency from, Currency to){
+        this.rates.remove(key(from, to));
+        return this;
+    }
+    
+    @Override
+    public Rate getRate(Currency from, Currency to){
+        return this.rates.get(key(from, to));
+    }
+    
+    private static Long key(Currency from, Currency to){
+        return ((long) from.getOrdinal() << 32) | to.getOrdinal();
+    }
+}
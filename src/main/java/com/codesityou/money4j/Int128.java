@@ -0,0 +1,141 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigInteger;
+
+/**
+ * Static helpers for overflow checks of longs and for 128-bit integers, kept as a pair of longs: 
+ * a signed high word and an unsigned low word.
+ * Math.multiplyHigh() is not available on Java 8, so it is implemented here in the same way as the JDK does
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class Int128 {
+    
+    private static final long LOW_32 = 0xFFFFFFFFL;
+    
+    private Int128(){
+    }
+    
+    /**
+     * Checks if a + b overflowed, given the wrapped sum: both arguments have the sign opposite to the sum. 
+     * The check also holds for a + b + carry, where the carry is 0 or 1
+     * @param a first summand
+     * @param b second summand
+     * @param sum wrapped sum
+     * @return true if the sum overflowed
+     */
+    static boolean addOverflows(long a, long b, long sum){
+        return ((a ^ sum) & (b ^ sum)) < 0;
+    }
+    
+    /**
+     * Checks if a - b overflowed, given the wrapped difference: the arguments have different signs, 
+     * and the sign of the difference differs from a. The check also holds for a - b - borrow, where the borrow is 0 or 1
+     * @param a minuend
+     * @param b subtrahend
+     * @param difference wrapped difference
+     * @return true if the difference overflowed
+     */
+    static boolean subtractOverflows(long a, long b, long difference){
+        return ((a ^ b) & (a ^ difference)) < 0;
+    }
+    
+    /**
+     * Returns the high 64 bits of the signed 128-bit product of two longs
+     * @param x first factor
+     * @param y second factor
+     * @return high word of x * y
+     */
+    static long multiplyHigh(long x, long y){
+        long x1 = x >> 32;
+        long x2 = x & LOW_32;
+        long y1 = y >> 32;
+        long y2 = y & LOW_32;
+        long z2 = x2 * y2;
+        long t = x1 * y2 + (z2 >>> 32);
+        long z1 = t & LOW_32;
+        long z0 = t >> 32;
+        z1 += x2 * y1;
+        return x1 * y1 + z0 + (z1 >> 32);
+    }
+    
+    /**
+     * Returns the high 64 bits of the 128-bit product of an unsigned long and a signed long
+     * @param x unsigned factor
+     * @param y signed factor
+     * @return high word of x * y
+     */
+    static long multiplyHighUnsignedSigned(long x, long y){
+        // the unsigned x is the signed x + 2^64, if its top bit is set
+        return multiplyHigh(x, y) + ((x >> 63) & y);
+    }
+    
+    /**
+     * Divides an unsigned 128-bit integer by an unsigned long, if the quotient fits into 64 bits 
+     * (Hacker's Delight, divlu)
+     * @param high unsigned high word of the dividend, less than the divisor
+     * @param low unsigned low word of the dividend
+     * @param divisor unsigned divisor
+     * @return unsigned truncated quotient
+     */
+    static long divideUnsigned(long high, long low, long divisor){
+        final long base = 1L << 32;
+        int shift = Long.numberOfLeadingZeros(divisor);
+        long v = divisor << shift;
+        long vn1 = v >>> 32;
+        long vn0 = v & LOW_32;
+        long un32 = (high << shift) | ((shift == 0) ? 0 : low >>> (64 - shift));
+        long un10 = low << shift;
+        long un1 = un10 >>> 32;
+        long un0 = un10 & LOW_32;
+        
+        long q1 = Long.divideUnsigned(un32, vn1);
+        long rhat = Long.remainderUnsigned(un32, vn1);
+        while (q1 >= base || Long.compareUnsigned(q1 * vn0, base * rhat + un1) > 0) {
+            q1--;
+            rhat += vn1;
+            if (rhat >= base) break;
+        }
+        long un21 = un32 * base + un1 - q1 * v;
+        long q0 = Long.divideUnsigned(un21, vn1);
+        rhat = Long.remainderUnsigned(un21, vn1);
+        while (q0 >= base || Long.compareUnsigned(q0 * vn0, base * rhat + un0) > 0) {
+            q0--;
+            rhat += vn1;
+            if (rhat >= base) break;
+        }
+        return q1 * base + q0;
+    }
+    
+    /**
+     * Converts the 128-bit integer to BigInteger
+     * @param high signed high word
+     * @param low unsigned low word
+     * @return BigInteger value
+     */
+    static BigInteger toBigInteger(long high, long low){
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[7 - i] = (byte) (high >>> (i * 8));
+            bytes[15 - i] = (byte) (low >>> (i * 8));
+        }
+        return new BigInteger(bytes);
+    }
+}
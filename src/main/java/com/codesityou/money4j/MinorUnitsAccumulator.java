@@ -0,0 +1,89 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigInteger;
+
+/**
+ * A mutable sum of values in minor currency units. Values are added to a primitive long;
+ * when the long overflows, its content is moved to a BigInteger, so no precision is lost.
+ * The class is not thread safe.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class MinorUnitsAccumulator {
+    
+    private long sum;
+    /**
+     * The part of the sum, which was moved out of the long, or null if it never overflowed
+     */
+    private BigInteger overflow;
+    
+    /**
+     * Adds a value in minor units
+     * @param value value to add
+     */
+    void add(long value){
+        long current = this.sum;
+        long result = current + value;
+        if (Int128.addOverflows(current, value, result)){
+            this.add(BigInteger.valueOf(current));
+            result = value;
+        }
+        this.sum = result;
+    }
+    
+    /**
+     * Adds a value in minor units, which does not fit into a long
+     * @param value value to add
+     */
+    void add(BigInteger value){
+        this.overflow = (this.overflow == null) ? value : this.overflow.add(value);
+    }
+    
+    /**
+     * Adds a value of the Money object, without checking the currency
+     * @param money Money object
+     */
+    void add(Money money){
+        if (money.isCompact()){
+            this.add(money.toMinorUnits());
+        } else {
+            this.add(money.toBigInteger());
+        }
+    }
+    
+    /**
+     * Adds a sum of the other accumulator (e.g. a partial sum of a parallel task)
+     * @param other the other accumulator
+     */
+    void add(MinorUnitsAccumulator other){
+        this.add(other.sum);
+        if (other.overflow != null) this.add(other.overflow);
+    }
+    
+    /**
+     * Returns the sum as a Money object
+     * @param currency Currency of the sum
+     * @return new Money instance
+     */
+    Money toMoney(Currency currency){
+        if (this.overflow == null) return Money.valueOf(this.sum, currency);
+        return Money.valueOf(this.overflow.add(BigInteger.valueOf(this.sum)), currency);
+    }
+}
@@ -16,37 +16,129 @@
 
 package com.codesityou.money4j;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.text.NumberFormat;
+import java.math.RoundingMode;
+import java.util.Locale;
 
 /**
  * The class specifies a Money object, and contains information,
  * about currency and value.
  * 
  * The value is stored in minor currency units (e.g. cents, but an actual name depends on the currency itself).
+ * Values, which fit into a long, use long arithmetic; larger values (e.g. amounts of currencies with many 
+ * decimal digits) use 128-bit arithmetic on two longs, and only values beyond 128 bits use BigInteger.
  * The class is immutable - arithmetic operations return new instance.
+ * Instances with small values (e.g. zero) are cached per currency, so do not compare them with ==.
  * 
  * @author Iurii Mednikov
  * @since 0.1
  */
 public final class Money implements Comparable<Money>, Serializable {
     
-    private final BigInteger value;
+    /**
+     * The lowest value in minor units, which instances are cached per currency
+     */
+    static final int CACHE_LOW = -128;
+    
+    /**
+     * The highest value in minor units, which instances are cached per currency. 
+     * The default is 1000 (e.g. EUR 10.00), it can be changed with -Dmoney4j.cache.high=N
+     */
+    static final int CACHE_HIGH = Math.max(0, Math.min(Integer.getInteger("money4j.cache.high", 1000), 1 << 20));
+    
+    /**
+     * The value in minor currency units, if it fits into a long, or the low word of the 128-bit value
+     */
+    private final long minor;
+    
+    /**
+     * The high word of the 128-bit value, which is the sign extension of minor, if the value fits into a long
+     */
+    private final long high;
+    
+    /**
+     * The value in minor currency units, if it does not fit into 128 bits. Otherwise it is null
+     */
+    private final BigInteger wide;
+    
     private final Currency currency;
     
+    /**
+     * Cached hash code of the wide value, or 0 if it is not computed yet
+     */
+    private transient int hash;
+    
     /**
      * Private constructor. Instead, use static factory methods of() and zero()
      * 
-     * @param value
+     * @param minor
+     * @param high
+     * @param wide
      * @param currency
      */
-    private Money(BigInteger value, Currency currency){
-        this.value = value;
+    private Money(long minor, long high, BigInteger wide, Currency currency){
+        this.minor = minor;
+        this.high = high;
+        this.wide = wide;
         this.currency = currency;
     }
     
+    /**
+     * Returns an instance with a long number of minor units. 
+     * Instances with small values (from -128 to 1000 minor units by default) are cached per currency
+     * 
+     * @param minor value in minor currency units
+     * @param currency Currency object
+     * @return Money instance
+     */
+    static Money valueOf(long minor, Currency currency){
+        if (minor < CACHE_LOW || minor > CACHE_HIGH) return new Money(minor, minor >> 63, null, currency);
+        Money[] cache = currency.getSmallValues();
+        int index = (int) minor - CACHE_LOW;
+        Money result = cache[index];
+        if (result == null){
+            // a race is harmless: instances are immutable and equal
+            result = new Money(minor, minor >> 63, null, currency);
+            cache[index] = result;
+        }
+        return result;
+    }
+    
+    /**
+     * Returns an instance with a 128-bit number of minor units. 
+     * The long representation is used, if the value fits into it
+     * 
+     * @param high signed high word of the value
+     * @param low unsigned low word of the value
+     * @param currency Currency object
+     * @return Money instance
+     */
+    static Money valueOf(long high, long low, Currency currency){
+        if (high == (low >> 63)) return valueOf(low, currency);
+        return new Money(low, high, null, currency);
+    }
+    
+    /**
+     * Returns an instance with a BigInteger number of minor units. 
+     * The long or 128-bit representation is used, if the value fits into it
+     * 
+     * @param value value in minor currency units
+     * @param currency Currency object
+     * @return Money instance
+     */
+    static Money valueOf(BigInteger value, Currency currency){
+        int bitLength = value.bitLength();
+        if (bitLength < Long.SIZE) return valueOf(value.longValue(), currency);
+        if (bitLength < 2 * Long.SIZE) return new Money(value.longValue(), value.shiftRight(Long.SIZE).longValue(), null, currency);
+        return new Money(0, 0, value, currency);
+    }
+    
     /**
      * The static factory method, which creates a new instance of Money object, using currency and BigDecimal value
      * 
@@ -55,32 +147,213 @@ public final class Money implements Comparable<Money>, Serializable {
      * @return new Money instance
      */
     public static Money of (BigDecimal bdValue, Currency currency){
-        int factor = currency.getFactor();
+        long factor = currency.getFactor();
         BigInteger value = bdValue.multiply(BigDecimal.valueOf(factor)).toBigInteger();
-        return new Money(value, currency);
+        return valueOf(value, currency);
     }
     
     /**
      * The static factory method, which creates a new instance of Money object, using currency and double value.
-     * The actual double value is converted to BigDecimal.
+     * The double is read as its shortest decimal representation (e.g. 0.1 is 0.1, not 0.1000000000000000055...), 
+     * and digits beyond the currency decimal digits are truncated
      * 
      * @param dValue Double, which represents a numeric value 
      * @param currency Currency object
      * @return new Money instance
+     * @throws NumberFormatException if the value is NaN or infinite
      */
     public static Money of (double dValue, Currency currency){
-        return of(BigDecimal.valueOf(dValue), currency);
+        return of(dValue, currency, RoundingMode.DOWN);
     }
     
     /**
-     * The static factory method, which creates a new Instance with zero numeric value (e.g. EUR 0)
+     * The static factory method, which creates a new instance of Money object, using currency and double value.
+     * The double is read as its shortest decimal representation, and rounded to the currency decimal digits 
+     * with the rounding mode (e.g. Money.of(10.005, Currency.of("EUR"), RoundingMode.HALF_UP) is EUR 10.01). 
+     * Doubles with up to 15 significant digits are converted without BigDecimal
      * 
+     * @param dValue Double, which represents a numeric value 
      * @param currency Currency object
+     * @param mode rounding mode
      * @return new Money instance
+     * @throws NumberFormatException if the value is NaN or infinite
+     * @throws ArithmeticException if the mode is UNNECESSARY and rounding is necessary
+     */
+    public static Money of (double dValue, Currency currency, RoundingMode mode){
+        long minor = DoubleConversion.toMinorUnits(dValue, currency.getDecimalParts(), mode);
+        if (minor != DoubleConversion.NOT_CONVERTED) return valueOf(minor, currency);
+        BigDecimal value = BigDecimal.valueOf(dValue).movePointRight(currency.getDecimalParts()).setScale(0, mode);
+        return valueOf(value.unscaledValue(), currency);
+    }
+    
+    /**
+     * The static factory method, which creates a new instance of Money object, using currency and 
+     * a value in minor currency units (e.g. Money.ofMinor(1050, Currency.of("EUR")) is EUR 10.50)
+     * 
+     * @param minor value in minor currency units
+     * @param currency Currency object
+     * @return new Money instance
+     */
+    public static Money ofMinor (long minor, Currency currency){
+        return valueOf(minor, currency);
+    }
+    
+    /**
+     * The static factory method, which returns an instance with zero numeric value (e.g. EUR 0).
+     * The instance is cached per currency
+     * 
+     * @param currency Currency object
+     * @return Money instance
      */
     public static Money zero (Currency currency){
-        BigInteger value = BigInteger.ZERO;
-        return new Money(value, currency);
+        return valueOf(0L, currency);
+    }
+    
+    /**
+     * Parses a Money object from a text in the canonical format CCC XXX.DD, where
+     * - CCC - ISO-4217 three letter currency code (e.g. EUR, USD etc)
+     * - XXX - major currency units, optionally with a leading sign, without grouping separators
+     * - DD - minor currency units (optional, no more digits than the currency has)
+     * 
+     * Example: Money.parse("EUR -1234.5")
+     * 
+     * @param text text to parse
+     * @return new Money instance
+     * @throws UnknownCurrencyException if the currency code is not registered
+     * @throws NumberFormatException if the text does not have the canonical format
+     */
+    public static Money parse(CharSequence text) throws UnknownCurrencyException, NumberFormatException {
+        int length = text.length();
+        if (length < 5 || text.charAt(3) != ' ') {
+            throw new NumberFormatException("Unable to parse Money from \"" + text + "\"");
+        }
+        int packed = CurrencyRegistry.pack(text.charAt(0), text.charAt(1), text.charAt(2));
+        Currency currency = CurrencyRegistry.byPackedCode(packed);
+        if (currency == null) throw new UnknownCurrencyException(text.subSequence(0, 3).toString());
+        return parse(text, 4, length, currency);
+    }
+    
+    /**
+     * Parses a Money object from a text in the canonical format CCC XXX.DD like parse() does, 
+     * but does not throw an exception, if the text is not valid
+     * 
+     * @param text text to parse
+     * @return new Money instance, or null if the text does not have the canonical format, 
+     * or the currency code is not registered
+     */
+    public static Money tryParse(CharSequence text){
+        int length = text.length();
+        if (length < 5 || text.charAt(3) != ' ') return null;
+        Currency currency = CurrencyRegistry.byPackedCode(CurrencyRegistry.pack(text.charAt(0), text.charAt(1), text.charAt(2)));
+        return (currency == null) ? null : parseAmount(text, 4, length, currency);
+    }
+    
+    /**
+     * Parses an amount of the given currency from the range of the text. 
+     * The amount has the format XXX.DD, where
+     * - XXX - major currency units, optionally with a leading sign, without grouping separators
+     * - DD - minor currency units (optional, no more digits than the currency has)
+     * 
+     * Example: Money.parse("id=7;amount=10.99", 12, 17, Currency.of("USD"))
+     * 
+     * @param text text to parse
+     * @param from index of the first character of the amount
+     * @param to index after the last character of the amount
+     * @param currency Currency object
+     * @return new Money instance
+     * @throws NumberFormatException if the range does not contain a valid amount
+     * @throws IndexOutOfBoundsException if the range is out of text bounds
+     */
+    public static Money parse(CharSequence text, int from, int to, Currency currency) throws NumberFormatException {
+        checkRange(text, from, to);
+        Money result = parseAmount(text, from, to, currency);
+        if (result == null) throw invalidAmount(text, from, to, currency);
+        return result;
+    }
+    
+    /**
+     * Parses an amount of the given currency from the range of the text like parse() does, 
+     * but does not throw an exception, if the amount is not valid
+     * 
+     * @param text text to parse
+     * @param from index of the first character of the amount
+     * @param to index after the last character of the amount
+     * @param currency Currency object
+     * @return new Money instance, or null if the range does not contain a valid amount
+     * @throws IndexOutOfBoundsException if the range is out of text bounds
+     */
+    public static Money tryParse(CharSequence text, int from, int to, Currency currency){
+        checkRange(text, from, to);
+        return parseAmount(text, from, to, currency);
+    }
+    
+    /**
+     * Parses the amount, or returns null if the amount is not valid
+     */
+    private static Money parseAmount(CharSequence text, int from, int to, Currency currency) {
+        int decimalParts = currency.getDecimalParts();
+        int i = from;
+        boolean negative = false;
+        if (i < to && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        // the value is accumulated as negative, as the long range is wider for negative numbers
+        long result = 0;
+        boolean overflow = false;
+        int integerDigits = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) return null;
+            if (fractionDigits < 0) {
+                integerDigits++;
+            } else if (++fractionDigits > decimalParts) {
+                return null;
+            }
+            overflow |= result < Long.MIN_VALUE / 10 || result * 10 < Long.MIN_VALUE + digit;
+            result = result * 10 - digit;
+        }
+        if (integerDigits == 0 || fractionDigits == 0) return null;
+        for (int k = Math.max(fractionDigits, 0); k < decimalParts; k++) {
+            overflow |= result < Long.MIN_VALUE / 10;
+            result *= 10;
+        }
+        if (!negative) {
+            overflow |= result == Long.MIN_VALUE;
+            result = -result;
+        }
+        if (overflow) {
+            // the text is valid, but the value does not fit into a long
+            BigDecimal value = new BigDecimal(text.subSequence(from, to).toString());
+            return valueOf(value.movePointRight(decimalParts).toBigIntegerExact(), currency);
+        }
+        return valueOf(result, currency);
+    }
+    
+    private static void checkRange(CharSequence text, int from, int to) {
+        if (from < 0 || to > text.length() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds of length " + text.length());
+        }
+    }
+    
+    /**
+     * Creates the exception for the amount, which parseAmount() rejected
+     */
+    private static NumberFormatException invalidAmount(CharSequence text, int from, int to, Currency currency) {
+        CharSequence amount = text.subSequence(from, to);
+        int dot = amount.toString().indexOf('.');
+        if (dot >= 0 && amount.length() - dot - 1 > currency.getDecimalParts()
+                && parseAmount(text, from, from + dot + 1 + currency.getDecimalParts(), currency) != null) {
+            return new NumberFormatException("Amount " + amount + " has more than " 
+                    + currency.getDecimalParts() + " decimal digits of " + currency.getCode());
+        }
+        return new NumberFormatException("Unable to parse an amount from \"" + amount + "\"");
     }
     
     /**
@@ -90,7 +363,7 @@ public final class Money implements Comparable<Money>, Serializable {
      * @return true if both instances are of the same currency, false if currencies are different
      */
     public boolean isSameCurrency (Money other){
-        return this.currency.isSameCurrency(other.getCurrency());
+        return this.currency == other.currency;
     }
     
     /**
@@ -102,9 +375,19 @@ public final class Money implements Comparable<Money>, Serializable {
      * @throws CurrenciesDontMatchException if other.currency != this.currency
      */
     public Money plus(Money other) throws CurrenciesDontMatchException{
-        if (!this.isSameCurrency(other)) throw new CurrenciesDontMatchException();
-        BigInteger result = this.value.add(other.value);
-        return new Money(result, this.currency);
+        if (this.currency != other.currency) throw new CurrenciesDontMatchException();
+        return this.add(other);
+    }
+    
+    /**
+     * Adds two Money instances like plus() does, but does not throw an exception, if currencies are different
+     * 
+     * @param other The other Money instance
+     * @return a new Money object, which represents a sum of values of two Money instances,
+     * or null if other.currency != this.currency
+     */
+    public Money tryPlus(Money other){
+        return (this.currency == other.currency) ? this.add(other) : null;
     }
     
     /**
@@ -116,9 +399,19 @@ public final class Money implements Comparable<Money>, Serializable {
      * @throws CurrenciesDontMatchException if other.currency != this.currency
      */
     public Money minus (Money other) throws CurrenciesDontMatchException{
-        if (!this.isSameCurrency(other)) throw new CurrenciesDontMatchException();
-        BigInteger result = this.value.subtract(other.value);
-        return new Money(result, this.currency);
+        if (this.currency != other.currency) throw new CurrenciesDontMatchException();
+        return this.subtract(other);
+    }
+    
+    /**
+     * Subtracts two Money instances like minus() does, but does not throw an exception, if currencies are different
+     * 
+     * @param other The other Money instance
+     * @return a new Money object, which represents a difference of values of two Money instances,
+     * or null if other.currency != this.currency
+     */
+    public Money tryMinus(Money other){
+        return (this.currency == other.currency) ? this.subtract(other) : null;
     }
     
     /**
@@ -129,8 +422,31 @@ public final class Money implements Comparable<Money>, Serializable {
      */
     public Money divide (long ln) {
         if (ln == 0) throw new IllegalArgumentException();
-        BigInteger result = this.value.divide(BigInteger.valueOf(ln));
-        return new Money(result, this.currency);
+        // Long.MIN_VALUE / -1 is the only long division, which overflows
+        if (this.isCompact() && (this.minor != Long.MIN_VALUE || ln != -1)) {
+            return valueOf(this.minor / ln, this.currency);
+        }
+        // -2^127 is the only 128-bit value, which magnitude does not fit into 128 bits
+        if (this.wide == null && (this.high != Long.MIN_VALUE || this.minor != 0)) {
+            boolean negative = this.high < 0;
+            long high = this.high;
+            long low = this.minor;
+            if (negative) {
+                high = ~high + ((low == 0) ? 1 : 0);
+                low = -low;
+            }
+            // the magnitude of the divisor as an unsigned long, including 2^63 for Long.MIN_VALUE
+            long divisor = (ln < 0) ? -ln : ln;
+            long quotientHigh = Long.divideUnsigned(high, divisor);
+            long quotientLow = Int128.divideUnsigned(Long.remainderUnsigned(high, divisor), low, divisor);
+            if (negative != (ln < 0)) {
+                quotientHigh = ~quotientHigh + ((quotientLow == 0) ? 1 : 0);
+                quotientLow = -quotientLow;
+            }
+            return valueOf(quotientHigh, quotientLow, this.currency);
+        }
+        BigInteger result = this.toBigInteger().divide(BigInteger.valueOf(ln));
+        return valueOf(result, this.currency);
     }
     
     /**
@@ -139,8 +455,23 @@ public final class Money implements Comparable<Money>, Serializable {
      * @return a new Money object, which represents a result of multiplication
      */
     public Money multiply (long ln){
-        BigInteger result = this.value.multiply(BigInteger.valueOf(ln));
-        return new Money(result, this.currency);
+        if (this.isCompact()) {
+            long a = this.minor;
+            // the product of two ints fits into a long, and the product of two longs always fits into 128 bits
+            if (((Math.abs(a) | Math.abs(ln)) >>> 31) == 0) return valueOf(a * ln, this.currency);
+            return valueOf(Int128.multiplyHigh(a, ln), a * ln, this.currency);
+        }
+        if (this.wide == null) {
+            // (high * 2^64 + low) * ln, where low is unsigned
+            long lowProductHigh = Int128.multiplyHighUnsignedSigned(this.minor, ln);
+            long highProduct = this.high * ln;
+            boolean overflow = Int128.multiplyHigh(this.high, ln) != (highProduct >> 63);
+            long resultHigh = highProduct + lowProductHigh;
+            overflow |= ((highProduct ^ resultHigh) & (lowProductHigh ^ resultHigh)) < 0;
+            if (!overflow) return valueOf(resultHigh, this.minor * ln, this.currency);
+        }
+        BigInteger result = this.toBigInteger().multiply(BigInteger.valueOf(ln));
+        return valueOf(result, this.currency);
     }
     
     /**
@@ -150,8 +481,8 @@ public final class Money implements Comparable<Money>, Serializable {
      * @throws CurrenciesDontMatchException if Other has a different currency
      */
     public boolean isLessThan (Money other) throws CurrenciesDontMatchException{
-        if (!this.currency.isSameCurrency(other.getCurrency())) throw new CurrenciesDontMatchException();
-        return this.value.compareTo(other.value) == -1;
+        if (this.currency != other.currency) throw new CurrenciesDontMatchException();
+        return this.compareValue(other) < 0;
     }
     
     /**
@@ -161,8 +492,8 @@ public final class Money implements Comparable<Money>, Serializable {
      * @throws CurrenciesDontMatchException if Other has a different currency
      */
     public boolean isGreaterThan(Money other) throws CurrenciesDontMatchException{
-        if (!this.currency.isSameCurrency(other.getCurrency())) throw new CurrenciesDontMatchException();
-        return this.value.compareTo(other.value) == 1;
+        if (this.currency != other.currency) throw new CurrenciesDontMatchException();
+        return this.compareValue(other) > 0;
     }
     
     /**
@@ -178,11 +509,78 @@ public final class Money implements Comparable<Money>, Serializable {
      * @return a "beautifed" String representation of the Money object
      */
     public String beautify() {
-        String symbol = this.currency.getSymbol();
-        BigDecimal bd = this.toBigDecimal();
-        NumberFormat nf = this.currency.getCurrencyFormat();
-        String result = symbol + " " + nf.format(bd);
-        return result;
+        return this.appendTo(new StringBuilder(24)).toString();
+    }
+    
+    /**
+     * Returns a String representation of the Money object, formatted with the rules of the given locale.
+     * The format is the same, as for beautify()
+     * 
+     * @param locale locale, which defines separators and grouping
+     * @return a "beautifed" String representation of the Money object
+     */
+    public String beautify(Locale locale) {
+        return this.appendTo(new StringBuilder(24), locale).toString();
+    }
+    
+    /**
+     * Writes the "beautified" representation (see beautify()) of the Money object to the Appendable
+     * 
+     * @param out destination, e.g. a Writer
+     * @throws IOException if the destination throws it
+     */
+    public void appendTo(Appendable out) throws IOException {
+        this.appendTo(out, this.currency.getFormatter());
+    }
+    
+    /**
+     * Writes the "beautified" representation (see beautify(Locale)) of the Money object to the Appendable
+     * 
+     * @param out destination, e.g. a Writer
+     * @param locale locale, which defines separators and grouping
+     * @throws IOException if the destination throws it
+     */
+    public void appendTo(Appendable out, Locale locale) throws IOException {
+        this.appendTo(out, this.currency.getFormatter(locale));
+    }
+    
+    /**
+     * Writes the "beautified" representation (see beautify()) of the Money object to the StringBuilder
+     * 
+     * @param sb destination
+     * @return the same StringBuilder
+     */
+    public StringBuilder appendTo(StringBuilder sb) {
+        return this.appendTo(sb, this.currency.getFormatter());
+    }
+    
+    /**
+     * Writes the "beautified" representation (see beautify(Locale)) of the Money object to the StringBuilder
+     * 
+     * @param sb destination
+     * @param locale locale, which defines separators and grouping
+     * @return the same StringBuilder
+     */
+    public StringBuilder appendTo(StringBuilder sb, Locale locale) {
+        return this.appendTo(sb, this.currency.getFormatter(locale));
+    }
+    
+    private StringBuilder appendTo(StringBuilder sb, MoneyFormatter formatter) {
+        try {
+            this.appendTo((Appendable) sb, formatter);
+        } catch (IOException ex){
+            // StringBuilder does not throw IOException
+            throw new UncheckedIOException(ex);
+        }
+        return sb;
+    }
+    
+    private void appendTo(Appendable out, MoneyFormatter formatter) throws IOException {
+        if (this.isCompact()) {
+            formatter.appendTo(out, this.minor);
+        } else {
+            formatter.appendTo(out, this.toBigInteger());
+        }
     }
     
     /**
@@ -198,18 +596,124 @@ public final class Money implements Comparable<Money>, Serializable {
      * @return true if the value is negative, false if the value if positive
      */
     public boolean isNegative(){
-        return this.value.signum() == -1;
+        if (this.wide == null) return this.high < 0;
+        return this.wide.signum() == -1;
     }
     
     /**
-     * Returns a BigDecimal representation of the value
+     * Returns the value in minor currency units (e.g. cents)
+     * @return value in minor currency units
+     * @throws ArithmeticException if the value does not fit into a long
+     */
+    public long toMinorUnits() {
+        if (!this.isCompact()) throw new ArithmeticException("Money value is out of the long range");
+        return this.minor;
+    }
+    
+    /**
+     * Returns a BigDecimal representation of the value. The scale is the smallest one, which represents
+     * the value exactly, but not negative (e.g. 10.5 and 10 for EUR, not 10.50 and 10.00)
      * @return BigDecimal value
      */
     public BigDecimal toBigDecimal() {
-        if (this.value.intValue() == 0) return BigDecimal.ZERO;
-        BigDecimal val = new BigDecimal(this.value);
-        BigDecimal div = val.divide(BigDecimal.valueOf(this.currency.getFactor()));
-        return div;
+        int scale = this.currency.getDecimalParts();
+        if (this.isCompact()) {
+            long unscaled = this.minor;
+            if (unscaled == 0) return BigDecimal.ZERO;
+            // trailing zeros are dropped, as the exact division of minor units by the factor does
+            while (scale > 0 && unscaled % 10 == 0) {
+                unscaled /= 10;
+                scale--;
+            }
+            return BigDecimal.valueOf(unscaled, scale);
+        }
+        BigDecimal value = new BigDecimal(this.toBigInteger(), scale).stripTrailingZeros();
+        return (value.scale() < 0) ? value.setScale(0) : value;
+    }
+    
+    /**
+     * Checks if the value fits into a long, so toMinorUnits() can be used
+     * @return true if the value fits into a long
+     */
+    boolean isCompact() {
+        return this.wide == null && this.high == (this.minor >> 63);
+    }
+    
+    /**
+     * Returns a value in minor currency units as BigInteger
+     * @return BigInteger value
+     */
+    BigInteger toBigInteger() {
+        if (this.wide != null) return this.wide;
+        if (this.isCompact()) return BigInteger.valueOf(this.minor);
+        return Int128.toBigInteger(this.high, this.minor);
+    }
+    
+    /**
+     * Adds numeric values of two Money objects, without checking currencies
+     */
+    private Money add(Money other){
+        if (this.wide == null && other.wide == null) {
+            long a = this.minor;
+            long b = other.minor;
+            long low = a + b;
+            if (this.isCompact() && other.isCompact()) {
+                if (Int128.addOverflows(a, b, low) == false) return valueOf(low, this.currency);
+            }
+            long carry = (Long.compareUnsigned(low, a) < 0) ? 1 : 0;
+            long high = this.high + other.high + carry;
+            if (Int128.addOverflows(this.high, other.high, high) == false) return valueOf(high, low, this.currency);
+        }
+        return valueOf(this.toBigInteger().add(other.toBigInteger()), this.currency);
+    }
+    
+    /**
+     * Subtracts numeric values of two Money objects, without checking currencies
+     */
+    private Money subtract(Money other){
+        if (this.wide == null && other.wide == null) {
+            long a = this.minor;
+            long b = other.minor;
+            long low = a - b;
+            if (this.isCompact() && other.isCompact()) {
+                if (Int128.subtractOverflows(a, b, low) == false) return valueOf(low, this.currency);
+            }
+            long borrow = (Long.compareUnsigned(a, b) < 0) ? 1 : 0;
+            long high = this.high - other.high - borrow;
+            if (Int128.subtractOverflows(this.high, other.high, high) == false) return valueOf(high, low, this.currency);
+        }
+        return valueOf(this.toBigInteger().subtract(other.toBigInteger()), this.currency);
+    }
+    
+    /**
+     * Compares numeric values of two Money objects, without checking currencies
+     * @param other Money object to compare with
+     * @return -1, 0 or 1 as this value is less than, equal to, or greater than other
+     */
+    private int compareValue(Money other) {
+        if (this.wide == null && other.wide == null) {
+            if (this.high != other.high) return (this.high < other.high) ? -1 : 1;
+            return Integer.signum(Long.compareUnsigned(this.minor, other.minor));
+        }
+        return this.toBigInteger().compareTo(other.toBigInteger());
+    }
+    
+    /**
+     * Replaces the object with the serialization proxy, which writes only the currency code 
+     * and the value in minor units
+     * @return Ser proxy
+     */
+    private Object writeReplace(){
+        return new Ser(Ser.MONEY_TYPE, this);
+    }
+    
+    /**
+     * Money objects are deserialized only by the serialization proxy
+     * @param in input stream
+     * @throws InvalidObjectException always
+     */
+    private void readObject(ObjectInputStream in) throws InvalidObjectException {
+        throw new InvalidObjectException("Deserialization is done by the serialization proxy");
     }
     
     /**
@@ -220,9 +724,8 @@ public final class Money implements Comparable<Money>, Serializable {
      */
     @Override
     public int compareTo(Money other) throws CurrenciesDontMatchException{
-        if (!this.currency.isSameCurrency(other.getCurrency())) throw new CurrenciesDontMatchException();
-        BigInteger otherValue = other.value;
-        return this.value.compareTo(otherValue);
+        if (this.currency != other.currency) throw new CurrenciesDontMatchException();
+        return this.compareValue(other);
     }
 
     /**
@@ -236,7 +739,27 @@ public final class Money implements Comparable<Money>, Serializable {
     public boolean equals(Object obj) {
         if (obj instanceof Money == false) return false;
         Money m = (Money) obj;
-        return m.value.equals(this.value) && m.getCurrency().equals(this.currency);
+        // both values are normalized, so the wide form is used only outside of the 128-bit range
+        boolean sameValue = (m.wide == null) ? (this.wide == null && m.minor == this.minor && m.high == this.high) : m.wide.equals(this.wide);
+        return sameValue && m.currency == this.currency;
     }
     
+    /**
+     * Overriden version of hashCode() method, consistent with equals().
+     * The hash code mixes the value in minor units and the currency ordinal, 
+     * so values, which differ only in few bits, have different hash codes
+     */
+    @Override
+    public int hashCode() {
+        int ordinal = this.currency.getOrdinal();
+        if (this.isCompact()) return PackedMoney.mix(this.minor ^ ((long) ordinal << 54));
+        if (this.wide == null) return PackedMoney.mix(this.minor ^ ((long) ordinal << 54)) * 31 + PackedMoney.mix(this.high);
+        int result = this.hash;
+        if (result == 0){
+            // a race is harmless: all threads compute the same value
+            result = this.wide.hashCode() * 31 + ordinal;
+            this.hash = result;
+        }
+        return result;
+    }
 }
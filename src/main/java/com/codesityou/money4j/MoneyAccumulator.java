@@ -0,0 +1,222 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigInteger;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * A thread safe running total of one currency, which is designed for frequent concurrent updates 
+ * (e.g. a balance, which is updated by many threads). The design follows java.util.concurrent.atomic.LongAdder:
+ * updates go to a single base value while there is no contention; under contention updates are spread
+ * over striped cells, which are placed on separate cache lines.
+ * 
+ * A cell, which would overflow, moves its value to a BigInteger, so no precision is lost. 
+ * sum() is not an atomic snapshot: updates, which happen concurrently with it, may be not included, 
+ * but a value, which is moved out of a cell, is always included once.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyAccumulator {
+    
+    /**
+     * Distance between cells in the array (in longs): 128 bytes cover two cache lines, 
+     * as some CPUs prefetch adjacent lines
+     */
+    private static final int STRIDE = 16;
+    
+    private static final int CELLS = cellsCount();
+    
+    private static final AtomicLongFieldUpdater<MoneyAccumulator> BASE = 
+            AtomicLongFieldUpdater.newUpdater(MoneyAccumulator.class, "base");
+    private static final AtomicReferenceFieldUpdater<MoneyAccumulator, AtomicLongArray> CELLS_UPDATER = 
+            AtomicReferenceFieldUpdater.newUpdater(MoneyAccumulator.class, AtomicLongArray.class, "cells");
+    
+    /**
+     * A cell index of the thread. It changes, when the thread collides with another thread on a cell
+     */
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{ThreadLocalRandom.current().nextInt() | 1});
+    
+    private final Currency currency;
+    private volatile long base;
+    /**
+     * Striped cells, created on the first contention
+     */
+    private volatile AtomicLongArray cells;
+    /**
+     * Values, which were moved out of the base or cells because of an overflow. Guarded by this
+     */
+    private BigInteger overflow;
+    
+    /**
+     * Private constructor. Instead, use static factory method of()
+     * 
+     * @param currency
+     */
+    private MoneyAccumulator(Currency currency){
+        this.currency = currency;
+    }
+    
+    /**
+     * The static factory method, which creates a new accumulator with zero sum
+     * 
+     * @param currency Currency of all values
+     * @return new MoneyAccumulator instance
+     */
+    public static MoneyAccumulator of(Currency currency){
+        return new MoneyAccumulator(currency);
+    }
+    
+    /**
+     * Returns the currency of the accumulator
+     * @return Currency object
+     */
+    public Currency getCurrency(){
+        return this.currency;
+    }
+    
+    /**
+     * Adds a Money value
+     * @param money value to add
+     * @throws CurrenciesDontMatchException if the value has a different currency
+     */
+    public void add(Money money) throws CurrenciesDontMatchException {
+        if (money.getCurrency() != this.currency) throw new CurrenciesDontMatchException();
+        if (money.isCompact()){
+            this.add(money.toMinorUnits());
+        } else {
+            this.spill(money.toBigInteger());
+        }
+    }
+    
+    /**
+     * Adds a value in minor currency units
+     * @param minor value to add
+     */
+    public void add(long minor){
+        AtomicLongArray cs = this.cells;
+        if (cs == null){
+            long current = this.base;
+            long result = current + minor;
+            if (Int128.addOverflows(current, minor, result)){
+                if (this.spillBase(current, minor)) return;
+            } else if (BASE.compareAndSet(this, current, result)){
+                return;
+            }
+            cs = this.inflate();
+        }
+        int[] probe = PROBE.get();
+        int hash = probe[0];
+        for (;;){
+            int index = (hash & (CELLS - 1)) * STRIDE;
+            long current = cs.get(index);
+            long result = current + minor;
+            if (Int128.addOverflows(current, minor, result)){
+                if (this.spillCell(cs, index, current, minor)) return;
+            } else if (cs.compareAndSet(index, current, result)){
+                return;
+            }
+            // xorshift to another cell after a collision
+            hash ^= hash << 13;
+            hash ^= hash >>> 17;
+            hash ^= hash << 5;
+            probe[0] = hash;
+        }
+    }
+    
+    /**
+     * Returns the current sum. Concurrent updates may be not included
+     * @return a new Money object, which represents the sum
+     */
+    public Money sum(){
+        MinorUnitsAccumulator result = new MinorUnitsAccumulator();
+        // values are read under the lock, so a value, which is moved to the overflow, is counted exactly once
+        synchronized (this){
+            result.add(this.base);
+            AtomicLongArray cs = this.cells;
+            if (cs != null){
+                for (int index = 0; index < cs.length(); index += STRIDE){
+                    result.add(cs.get(index));
+                }
+            }
+            if (this.overflow != null) result.add(this.overflow);
+        }
+        return result.toMoney(this.currency);
+    }
+    
+    /**
+     * Returns the current sum and resets the accumulator to zero. 
+     * Each concurrent update is included either in the returned sum, or in the next one
+     * @return a new Money object, which represents the sum
+     */
+    public Money sumThenReset(){
+        MinorUnitsAccumulator result = new MinorUnitsAccumulator();
+        synchronized (this){
+            result.add(BASE.getAndSet(this, 0));
+            AtomicLongArray cs = this.cells;
+            if (cs != null){
+                for (int index = 0; index < cs.length(); index += STRIDE){
+                    result.add(cs.getAndSet(index, 0));
+                }
+            }
+            if (this.overflow != null) result.add(this.overflow);
+            this.overflow = null;
+        }
+        return result.toMoney(this.currency);
+    }
+    
+    private AtomicLongArray inflate(){
+        CELLS_UPDATER.compareAndSet(this, null, new AtomicLongArray(CELLS * STRIDE));
+        return this.cells;
+    }
+    
+    /**
+     * Replaces the base with the value, which would overflow it, and moves the current base to the overflow. 
+     * Both happen under the lock, so sum() sees the current base either in the base, or in the overflow. 
+     * Returns false if the base was changed concurrently
+     */
+    private synchronized boolean spillBase(long current, long minor){
+        if (BASE.compareAndSet(this, current, minor) == false) return false;
+        this.spill(BigInteger.valueOf(current));
+        return true;
+    }
+    
+    /**
+     * Same as spillBase() for a cell
+     */
+    private synchronized boolean spillCell(AtomicLongArray cs, int index, long current, long minor){
+        if (cs.compareAndSet(index, current, minor) == false) return false;
+        this.spill(BigInteger.valueOf(current));
+        return true;
+    }
+    
+    private synchronized void spill(BigInteger value){
+        this.overflow = (this.overflow == null) ? value : this.overflow.add(value);
+    }
+    
+    /**
+     * Returns a power of two, which is not less than the number of CPUs
+     */
+    private static int cellsCount(){
+        int cpus = Runtime.getRuntime().availableProcessors();
+        return (cpus <= 1) ? 1 : Integer.highestOneBit(cpus - 1) << 1;
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The class contains static methods, which sum large arrays and lists of Money objects.
+ * 
+ * Large inputs are split into ranges, which are summed in parallel by the common ForkJoinPool. 
+ * Each range is summed into primitive longs (a long, which overflows, is moved to a BigInteger), 
+ * so no intermediate Money objects are created. Partial sums are merged at the end.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyAggregates {
+    
+    /**
+     * A number of elements, which are summed sequentially by one task
+     */
+    static final int THRESHOLD = 1 << 13;
+    
+    private MoneyAggregates(){
+    }
+    
+    /**
+     * Returns a sum of all values. All values should have the currency, otherwise an exception will be thrown
+     * 
+     * @param values Money objects
+     * @param currency Currency of values
+     * @return a new Money object, which represents a sum (zero, if there are no values)
+     * @throws CurrenciesDontMatchException if any value has a different currency
+     */
+    public static Money sum(Money[] values, Currency currency) throws CurrenciesDontMatchException {
+        return sum(Arrays.asList(values), currency);
+    }
+    
+    /**
+     * Returns a sum of all values. All values should have the currency, otherwise an exception will be thrown
+     * 
+     * @param values Money objects
+     * @param currency Currency of values
+     * @return a new Money object, which represents a sum (zero, if there are no values)
+     * @throws CurrenciesDontMatchException if any value has a different currency
+     */
+    public static Money sum(List<Money> values, Currency currency) throws CurrenciesDontMatchException {
+        SumTask task = new SumTask(randomAccess(values), currency, 0, values.size());
+        MinorUnitsAccumulator result = (values.size() <= THRESHOLD) ? task.compute() : task.invoke();
+        return result.toMoney(currency);
+    }
+    
+    /**
+     * Returns sums of values per currency
+     * 
+     * @param values Money objects of any currencies
+     * @return a new map, which contains a sum for each currency, which has at least one value
+     */
+    public static Map<Currency, Money> sumByCurrency(Money[] values){
+        return sumByCurrency(Arrays.asList(values));
+    }
+    
+    /**
+     * Returns sums of values per currency
+     * 
+     * @param values Money objects of any currencies
+     * @return a new map, which contains a sum for each currency, which has at least one value
+     */
+    public static Map<Currency, Money> sumByCurrency(List<Money> values){
+        SumByCurrencyTask task = new SumByCurrencyTask(randomAccess(values), 0, values.size());
+        CurrencySums result = (values.size() <= THRESHOLD) ? task.compute() : task.invoke();
+        return result.toMap();
+    }
+    
+    /**
+     * Tasks access elements by index, so linked lists are copied
+     */
+    private static List<Money> randomAccess(List<Money> values){
+        return (values instanceof RandomAccess) ? values : new ArrayList<>(values);
+    }
+    
+    private static final class SumTask extends RecursiveTask<MinorUnitsAccumulator> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final List<Money> values;
+        private final Currency currency;
+        private final int from;
+        private final int to;
+        
+        SumTask(List<Money> values, Currency currency, int from, int to){
+            this.values = values;
+            this.currency = currency;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected MinorUnitsAccumulator compute(){
+            if (this.to - this.from > THRESHOLD){
+                int middle = (this.from + this.to) >>> 1;
+                SumTask left = new SumTask(this.values, this.currency, this.from, middle);
+                left.fork();
+                MinorUnitsAccumulator result = new SumTask(this.values, this.currency, middle, this.to).compute();
+                result.add(left.join());
+                return result;
+            }
+            MinorUnitsAccumulator result = new MinorUnitsAccumulator();
+            for (int i = this.from; i < this.to; i++){
+                Money money = this.values.get(i);
+                if (money.getCurrency() != this.currency) throw new CurrenciesDontMatchException();
+                result.add(money);
+            }
+            return result;
+        }
+    }
+    
+    private static final class SumByCurrencyTask extends RecursiveTask<CurrencySums> {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final List<Money> values;
+        private final int from;
+        private final int to;
+        
+        SumByCurrencyTask(List<Money> values, int from, int to){
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected CurrencySums compute(){
+            if (this.to - this.from > THRESHOLD){
+                int middle = (this.from + this.to) >>> 1;
+                SumByCurrencyTask left = new SumByCurrencyTask(this.values, this.from, middle);
+                left.fork();
+                CurrencySums result = new SumByCurrencyTask(this.values, middle, this.to).compute();
+                result.add(left.join());
+                return result;
+            }
+            CurrencySums result = new CurrencySums();
+            for (int i = this.from; i < this.to; i++){
+                result.add(this.values.get(i));
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A fixed size table of monetary values, which is stored outside of the Java heap in a direct ByteBuffer, 
+ * so large tables do not increase garbage collection pauses.
+ * 
+ * Each entry is a 16 bytes record:
+ * - bytes 0-1: currency ordinal + 1 (0 means an empty entry)
+ * - bytes 2-3: flags (1 means that the value is kept in the escape table)
+ * - bytes 4-7: reserved, keep longs aligned
+ * - bytes 8-15: value in minor currency units
+ * Values, which do not fit into a long, are kept on heap in the escape table.
+ * 
+ * Use a Cursor to read and update entries without creating Money objects. 
+ * The class is not thread safe.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyBuffer {
+    
+    static final int RECORD_SIZE = 16;
+    static final int MAX_CAPACITY = Integer.MAX_VALUE / RECORD_SIZE;
+    
+    private static final int CURRENCY_OFFSET = 0;
+    private static final int FLAGS_OFFSET = 2;
+    private static final int AMOUNT_OFFSET = 8;
+    private static final short FLAG_ESCAPED = 1;
+    
+    private final ByteBuffer buffer;
+    private final int capacity;
+    /**
+     * Values, which do not fit into a long, by entry index
+     */
+    private final Map<Integer, BigInteger> escapes = new HashMap<>();
+    
+    /**
+     * Private constructor. Instead, use static factory method allocate()
+     * 
+     * @param capacity
+     */
+    private MoneyBuffer(int capacity){
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.nativeOrder());
+    }
+    
+    /**
+     * The static factory method, which allocates a new table with all entries empty
+     * 
+     * @param capacity number of entries
+     * @return new MoneyBuffer instance
+     * @throws IllegalArgumentException if the capacity is negative or exceeds 134217727 entries
+     */
+    public static MoneyBuffer allocate(int capacity){
+        if (capacity < 0 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Capacity should be in the range [0, " + MAX_CAPACITY + "]");
+        }
+        return new MoneyBuffer(capacity);
+    }
+    
+    /**
+     * Returns a number of entries
+     * @return capacity of the table
+     */
+    public int capacity(){
+        return this.capacity;
+    }
+    
+    /**
+     * Returns an entry as a Money object
+     * @param index index of the entry
+     * @return new Money instance, or null if the entry is empty
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Money get(int index){
+        return this.read(index, this.offset(index));
+    }
+    
+    /**
+     * Replaces an entry
+     * @param index index of the entry
+     * @param money new value, or null to make the entry empty
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public void set(int index, Money money){
+        this.write(index, this.offset(index), money);
+    }
+    
+    /**
+     * Returns a new cursor. A cursor can be moved to any entry and reused
+     * @return new Cursor instance, which points to the entry 0
+     */
+    public Cursor cursor(){
+        return new Cursor();
+    }
+    
+    /**
+     * Returns the offset of the entry
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    private int offset(int index){
+        if (index < 0 || index >= this.capacity) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds of capacity " + this.capacity);
+        }
+        return index * RECORD_SIZE;
+    }
+    
+    private Money read(int index, int offset){
+        int stored = this.buffer.getShort(offset + CURRENCY_OFFSET);
+        if (stored == 0) return null;
+        Currency currency = CurrencyRegistry.byOrdinal(stored - 1);
+        if (this.buffer.getShort(offset + FLAGS_OFFSET) != FLAG_ESCAPED) {
+            return Money.valueOf(this.buffer.getLong(offset + AMOUNT_OFFSET), currency);
+        }
+        return Money.valueOf(this.escapes.get(index), currency);
+    }
+    
+    private void write(int index, int offset, Money money){
+        if (money == null){
+            this.buffer.putShort(offset + CURRENCY_OFFSET, (short) 0);
+            this.putCompact(index, offset, 0);
+        } else {
+            this.buffer.putShort(offset + CURRENCY_OFFSET, (short) (money.getCurrency().getOrdinal() + 1));
+            if (money.isCompact()){
+                this.putCompact(index, offset, money.toMinorUnits());
+            } else {
+                this.putEscaped(index, offset, money.toBigInteger());
+            }
+        }
+    }
+    
+    private void putCompact(int index, int offset, long minor){
+        if (this.buffer.getShort(offset + FLAGS_OFFSET) == FLAG_ESCAPED) this.escapes.remove(index);
+        this.buffer.putShort(offset + FLAGS_OFFSET, (short) 0);
+        this.buffer.putLong(offset + AMOUNT_OFFSET, minor);
+    }
+    
+    private void putEscaped(int index, int offset, BigInteger value){
+        this.escapes.put(index, value);
+        this.buffer.putShort(offset + FLAGS_OFFSET, FLAG_ESCAPED);
+        this.buffer.putLong(offset + AMOUNT_OFFSET, 0);
+    }
+    
+    /**
+     * A flyweight view of an entry, which reads and updates the entry in place.
+     * A cursor is not thread safe and should not be shared between threads.
+     */
+    public final class Cursor {
+        
+        private int index;
+        private int offset;
+        
+        private Cursor(){
+        }
+        
+        /**
+         * Moves the cursor to the entry
+         * @param index index of the entry
+         * @return this cursor
+         * @throws IndexOutOfBoundsException if the index is out of range
+         */
+        public Cursor moveTo(int index){
+            this.offset = offset(index);
+            this.index = index;
+            return this;
+        }
+        
+        /**
+         * Returns an index of the current entry
+         * @return index
+         */
+        public int index(){
+            return this.index;
+        }
+        
+        /**
+         * Checks if the current entry has no value
+         * @return true if the entry is empty
+         */
+        public boolean isEmpty(){
+            return buffer().getShort(this.offset + CURRENCY_OFFSET) == 0;
+        }
+        
+        /**
+         * Returns the currency of the current entry
+         * @return Currency object, or null if the entry is empty
+         */
+        public Currency getCurrency(){
+            int stored = buffer().getShort(this.offset + CURRENCY_OFFSET);
+            return (stored == 0) ? null : CurrencyRegistry.byOrdinal(stored - 1);
+        }
+        
+        /**
+         * Checks if the value of the current entry fits into a long, so getMinorUnits() can be used
+         * @return true if the value fits into a long
+         */
+        public boolean isCompact(){
+            return buffer().getShort(this.offset + FLAGS_OFFSET) != FLAG_ESCAPED;
+        }
+        
+        /**
+         * Returns the value of the current entry in minor currency units (0 for an empty entry)
+         * @return value in minor currency units
+         * @throws ArithmeticException if the value does not fit into a long
+         */
+        public long getMinorUnits(){
+            if (!this.isCompact()) throw new ArithmeticException("Money value is out of the long range");
+            return buffer().getLong(this.offset + AMOUNT_OFFSET);
+        }
+        
+        /**
+         * Replaces the current entry with a value in minor units
+         * @param minor value in minor currency units
+         * @param currency Currency object
+         * @return this cursor
+         */
+        public Cursor set(long minor, Currency currency){
+            ByteBuffer b = buffer();
+            b.putShort(this.offset + CURRENCY_OFFSET, (short) (currency.getOrdinal() + 1));
+            this.putCompact(minor);
+            return this;
+        }
+        
+        /**
+         * Replaces the current entry
+         * @param money new value, or null to make the entry empty
+         * @return this cursor
+         */
+        public Cursor set(Money money){
+            write(this.index, this.offset, money);
+            return this;
+        }
+        
+        /**
+         * Adds a value in minor units to the current entry. The value is moved to the escape table, 
+         * if the sum does not fit into a long
+         * @param minor value to add
+         * @return this cursor
+         * @throws IllegalStateException if the entry is empty
+         */
+        public Cursor add(long minor){
+            if (this.isEmpty()) throw new IllegalStateException("Entry " + this.index + " is empty");
+            if (this.isCompact()){
+                long current = buffer().getLong(this.offset + AMOUNT_OFFSET);
+                long result = current + minor;
+                if (Int128.addOverflows(current, minor, result) == false){
+                    buffer().putLong(this.offset + AMOUNT_OFFSET, result);
+                } else {
+                    this.putEscaped(BigInteger.valueOf(current).add(BigInteger.valueOf(minor)));
+                }
+            } else {
+                BigInteger result = escapes.get(this.index).add(BigInteger.valueOf(minor));
+                if (result.bitLength() < Long.SIZE){
+                    this.putCompact(result.longValue());
+                } else {
+                    this.putEscaped(result);
+                }
+            }
+            return this;
+        }
+        
+        /**
+         * Adds a Money value to the current entry. 
+         * @param money value to add
+         * @return this cursor
+         * @throws IllegalStateException if the entry is empty
+         * @throws CurrenciesDontMatchException if the entry has a different currency
+         */
+        public Cursor add(Money money) throws CurrenciesDontMatchException {
+            if (this.isEmpty()) throw new IllegalStateException("Entry " + this.index + " is empty");
+            if (this.getCurrency() != money.getCurrency()) throw new CurrenciesDontMatchException();
+            if (money.isCompact()) return this.add(money.toMinorUnits());
+            return this.set(this.toMoney().plus(money));
+        }
+        
+        /**
+         * Returns the current entry as a Money object
+         * @return new Money instance, or null if the entry is empty
+         */
+        public Money toMoney(){
+            return read(this.index, this.offset);
+        }
+        
+        private void putCompact(long minor){
+            MoneyBuffer.this.putCompact(this.index, this.offset, minor);
+        }
+        
+        private void putEscaped(BigInteger value){
+            MoneyBuffer.this.putEscaped(this.index, this.offset, value);
+        }
+        
+        private ByteBuffer buffer(){
+            return MoneyBuffer.this.buffer;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * A mutable value in minor units of one currency, for chains of arithmetic operations 
+ * (e.g. price * quantity - discount + tax), which create a Money object only for the final result.
+ * 
+ * The value is kept in a primitive long; when an operation overflows, the value is moved to a BigInteger, 
+ * and it is moved back, when it fits into a long again. So no precision is lost.
+ * The class is not thread safe: use an instance in one thread.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyCalculator {
+    
+    private final Currency currency;
+    private long minor;
+    /**
+     * The value, if it does not fit into a long, otherwise null
+     */
+    private BigInteger wide;
+    
+    /**
+     * Private constructor. Instead, use static factory methods of()
+     * 
+     * @param currency
+     */
+    private MoneyCalculator(Currency currency){
+        this.currency = currency;
+    }
+    
+    /**
+     * The static factory method, which creates a new calculator with zero value
+     * 
+     * @param currency Currency of all values
+     * @return new MoneyCalculator instance
+     */
+    public static MoneyCalculator of(Currency currency){
+        return new MoneyCalculator(currency);
+    }
+    
+    /**
+     * The static factory method, which creates a new calculator with the value of the Money object
+     * 
+     * @param money initial value
+     * @return new MoneyCalculator instance
+     */
+    public static MoneyCalculator of(Money money){
+        return new MoneyCalculator(money.getCurrency()).set(money);
+    }
+    
+    /**
+     * Returns the currency of the calculator
+     * @return Currency object
+     */
+    public Currency getCurrency(){
+        return this.currency;
+    }
+    
+    /**
+     * Replaces the value
+     * @param money new value
+     * @return this calculator
+     * @throws CurrenciesDontMatchException if the currency of the value is different
+     */
+    public MoneyCalculator set(Money money) throws CurrenciesDontMatchException {
+        this.checkCurrency(money);
+        if (money.isCompact()) {
+            this.minor = money.toMinorUnits();
+            this.wide = null;
+        } else {
+            this.wide = money.toBigInteger();
+        }
+        return this;
+    }
+    
+    /**
+     * Replaces the value
+     * @param minor new value in minor units
+     * @return this calculator
+     */
+    public MoneyCalculator set(long minor){
+        this.minor = minor;
+        this.wide = null;
+        return this;
+    }
+    
+    /**
+     * Adds the value
+     * @param money value to add
+     * @return this calculator
+     * @throws CurrenciesDontMatchException if the currency of the value is different
+     */
+    public MoneyCalculator add(Money money) throws CurrenciesDontMatchException {
+        this.checkCurrency(money);
+        return money.isCompact() ? this.add(money.toMinorUnits()) : this.setWide(this.toBigInteger().add(money.toBigInteger()));
+    }
+    
+    /**
+     * Adds the value
+     * @param minor value to add in minor units
+     * @return this calculator
+     */
+    public MoneyCalculator add(long minor){
+        if (this.wide == null) {
+            long a = this.minor;
+            long result = a + minor;
+            if (Int128.addOverflows(a, minor, result) == false) {
+                this.minor = result;
+                return this;
+            }
+        }
+        return this.setWide(this.toBigInteger().add(BigInteger.valueOf(minor)));
+    }
+    
+    /**
+     * Subtracts the value
+     * @param money value to subtract
+     * @return this calculator
+     * @throws CurrenciesDontMatchException if the currency of the value is different
+     */
+    public MoneyCalculator subtract(Money money) throws CurrenciesDontMatchException {
+        this.checkCurrency(money);
+        return money.isCompact() ? this.subtract(money.toMinorUnits()) : this.setWide(this.toBigInteger().subtract(money.toBigInteger()));
+    }
+    
+    /**
+     * Subtracts the value
+     * @param minor value to subtract in minor units
+     * @return this calculator
+     */
+    public MoneyCalculator subtract(long minor){
+        if (this.wide == null) {
+            long a = this.minor;
+            long result = a - minor;
+            if (Int128.subtractOverflows(a, minor, result) == false) {
+                this.minor = result;
+                return this;
+            }
+        }
+        return this.setWide(this.toBigInteger().subtract(BigInteger.valueOf(minor)));
+    }
+    
+    /**
+     * Multiplies the value
+     * @param ln multiplier
+     * @return this calculator
+     */
+    public MoneyCalculator multiply(long ln){
+        if (this.wide == null) {
+            long a = this.minor;
+            long result = a * ln;
+            long absA = Math.abs(a);
+            long absLn = Math.abs(ln);
+            // the same check, as Math.multiplyExact() does, but without an exception
+            if (((absA | absLn) >>> 31 == 0)
+                    || ((ln == 0 || result / ln == a) && (a != Long.MIN_VALUE || ln != -1))) {
+                this.minor = result;
+                return this;
+            }
+        }
+        return this.setWide(this.toBigInteger().multiply(BigInteger.valueOf(ln)));
+    }
+    
+    /**
+     * Divides the value, truncating the quotient, like Money.divide() does
+     * @param ln divider
+     * @return this calculator
+     * @throws IllegalArgumentException if the divider is 0
+     */
+    public MoneyCalculator divide(long ln){
+        return this.divide(ln, RoundingMode.DOWN);
+    }
+    
+    /**
+     * Divides the value and rounds the quotient to minor units (e.g. to compute a percentage)
+     * @param ln divider
+     * @param mode rounding mode
+     * @return this calculator
+     * @throws IllegalArgumentException if the divider is 0
+     * @throws ArithmeticException if the mode is UNNECESSARY and the quotient needs rounding
+     */
+    public MoneyCalculator divide(long ln, RoundingMode mode){
+        if (ln == 0) throw new IllegalArgumentException();
+        if (this.wide == null && ln > 0 && ln < (1L << 62)) {
+            this.minor = Rounding.divide(this.minor, ln, mode);
+            return this;
+        }
+        BigDecimal result = new BigDecimal(this.toBigInteger()).divide(BigDecimal.valueOf(ln), 0, mode);
+        return this.setWide(result.toBigIntegerExact());
+    }
+    
+    /**
+     * Returns the current value
+     * @return new Money instance
+     */
+    public Money toMoney(){
+        return (this.wide == null) ? Money.valueOf(this.minor, this.currency) : Money.valueOf(this.wide, this.currency);
+    }
+    
+    private void checkCurrency(Money money) throws CurrenciesDontMatchException {
+        if (money.getCurrency() != this.currency) throw new CurrenciesDontMatchException();
+    }
+    
+    private BigInteger toBigInteger(){
+        return (this.wide == null) ? BigInteger.valueOf(this.minor) : this.wide;
+    }
+    
+    /**
+     * Sets the value, keeping it in the long, if it fits
+     */
+    private MoneyCalculator setWide(BigInteger value){
+        if (value.bitLength() < 64) {
+            this.minor = value.longValue();
+            this.wide = null;
+        } else {
+            this.wide = value;
+        }
+        return this;
+    }
+}
@@ -0,0 +1,344 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * The class encodes Money objects in a compact binary form and decodes them back.
+ * 
+ * An encoded value starts with a 2 bytes header, which contains the ISO-4217 numeric currency code
+ * in the lower 10 bits. The header is followed by the value in minor currency units:
+ * - FIXED codec writes 8 bytes (big endian long)
+ * - VARINT codec writes 1-10 bytes (zigzag encoded variable length long), e.g. 2 bytes for EUR 1.00
+ * Values, which do not fit into a long, have the highest bit of the header set and are written by both 
+ * codecs as a variable length byte count, followed by two's complement bytes of the value. 
+ * A corrupted byte count can not allocate a huge array: a buffer should have all counted bytes, 
+ * and an input is read in growing chunks, so it fails with EOFException before the allocation exceeds its bytes.
+ * 
+ * Instances are immutable and can be shared between threads.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyCodec {
+    
+    /**
+     * The codec, which writes values in minor units as 8 bytes
+     */
+    public static final MoneyCodec FIXED = new MoneyCodec(false);
+    
+    /**
+     * The codec, which writes values in minor units as 1-10 bytes (small values take less bytes)
+     */
+    public static final MoneyCodec VARINT = new MoneyCodec(true);
+    
+    private static final int CODE_MASK = 0x3FF;
+    private static final int WIDE_FLAG = 0x8000;
+    private static final int MAX_VARINT_SIZE = 10;
+    /**
+     * The number of bytes of a value, which does not fit into a long, which are allocated before 
+     * the input has them (511 bits and a sign bit)
+     */
+    private static final int WIDE_CHUNK_SIZE = 64;
+    /**
+     * The number of values of an array, which are allocated before the input has them
+     */
+    private static final int VALUES_CHUNK_SIZE = 1024;
+    
+    private final boolean varint;
+    
+    private MoneyCodec(boolean varint){
+        this.varint = varint;
+    }
+    
+    /**
+     * Returns a number of bytes, which encode() writes for the value
+     * @param money Money object
+     * @return encoded size in bytes
+     */
+    public int encodedSize(Money money){
+        if (!money.isCompact()){
+            int length = money.toBigInteger().bitLength() / 8 + 1;
+            return 2 + varintSize(length) + length;
+        }
+        return 2 + (this.varint ? varintSize(zigzag(money.toMinorUnits())) : 8);
+    }
+    
+    /**
+     * Writes the value to the buffer
+     * @param money Money object
+     * @param buffer destination
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space
+     */
+    public void encode(Money money, ByteBuffer buffer){
+        int code = money.getCurrency().getNumericCode();
+        if (!money.isCompact()){
+            byte[] bytes = money.toBigInteger().toByteArray();
+            buffer.putShort((short) (code | WIDE_FLAG));
+            putVarint(buffer, bytes.length);
+            buffer.put(bytes);
+        } else if (this.varint){
+            buffer.putShort((short) code);
+            putVarint(buffer, zigzag(money.toMinorUnits()));
+        } else {
+            buffer.putShort((short) code);
+            buffer.putLong(money.toMinorUnits());
+        }
+    }
+    
+    /**
+     * Reads a value from the buffer
+     * @param buffer source
+     * @return new Money instance
+     * @throws java.nio.BufferUnderflowException if the buffer has not enough bytes
+     * @throws UnknownCurrencyException if the currency code is not registered
+     * @throws IllegalArgumentException if the bytes are not a valid encoded value
+     */
+    public Money decode(ByteBuffer buffer) throws UnknownCurrencyException {
+        int header = buffer.getShort() & 0xFFFF;
+        Currency currency = Currency.ofNumeric(header & CODE_MASK);
+        if ((header & WIDE_FLAG) != 0){
+            int length = checkWideLength(getVarint(buffer));
+            if (length > buffer.remaining()) throw new BufferUnderflowException();
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return Money.valueOf(new BigInteger(bytes), currency);
+        }
+        long minor = this.varint ? unzigzag(getVarint(buffer)) : buffer.getLong();
+        return Money.valueOf(minor, currency);
+    }
+    
+    /**
+     * Writes the value to the output
+     * @param money Money object
+     * @param out destination
+     * @throws IOException if the output throws it
+     */
+    public void encode(Money money, DataOutput out) throws IOException {
+        int code = money.getCurrency().getNumericCode();
+        if (!money.isCompact()){
+            byte[] bytes = money.toBigInteger().toByteArray();
+            out.writeShort(code | WIDE_FLAG);
+            writeVarint(out, bytes.length);
+            out.write(bytes);
+        } else if (this.varint){
+            out.writeShort(code);
+            writeVarint(out, zigzag(money.toMinorUnits()));
+        } else {
+            out.writeShort(code);
+            out.writeLong(money.toMinorUnits());
+        }
+    }
+    
+    /**
+     * Reads a value from the input
+     * @param in source
+     * @return new Money instance
+     * @throws IOException if the input throws it, or the bytes are not a valid encoded value
+     * @throws UnknownCurrencyException if the currency code is not registered
+     */
+    public Money decode(DataInput in) throws IOException, UnknownCurrencyException {
+        int header = in.readUnsignedShort();
+        Currency currency = Currency.ofNumeric(header & CODE_MASK);
+        if ((header & WIDE_FLAG) != 0){
+            int length;
+            try {
+                length = checkWideLength(readVarint(in));
+            } catch (IllegalArgumentException ex){
+                throw new StreamCorruptedException(ex.getMessage());
+            }
+            byte[] bytes = readBytes(in, length);
+            return Money.valueOf(new BigInteger(bytes), currency);
+        }
+        long minor = this.varint ? unzigzag(readVarint(in)) : in.readLong();
+        return Money.valueOf(minor, currency);
+    }
+    
+    /**
+     * Writes the array to the buffer: a variable length count, followed by encoded values
+     * @param values Money objects
+     * @param buffer destination
+     * @throws java.nio.BufferOverflowException if the buffer has not enough space
+     */
+    public void encodeAll(Money[] values, ByteBuffer buffer){
+        putVarint(buffer, values.length);
+        for (Money money : values){
+            this.encode(money, buffer);
+        }
+    }
+    
+    /**
+     * Reads an array, which was written by encodeAll(), from the buffer
+     * @param buffer source
+     * @return new array of Money objects
+     * @throws java.nio.BufferUnderflowException if the buffer has not enough bytes
+     * @throws UnknownCurrencyException if a currency code is not registered
+     * @throws IllegalArgumentException if the bytes are not a valid encoded array
+     */
+    public Money[] decodeAll(ByteBuffer buffer) throws UnknownCurrencyException {
+        int count = checkLength(getVarint(buffer));
+        // each value takes at least 3 bytes, so a corrupted count can not allocate a huge array
+        if (count > buffer.remaining() / 3) throw new IllegalArgumentException("Invalid number of values: " + count);
+        Money[] values = new Money[count];
+        for (int i = 0; i < count; i++){
+            values[i] = this.decode(buffer);
+        }
+        return values;
+    }
+    
+    /**
+     * Writes the array to the output: a variable length count, followed by encoded values
+     * @param values Money objects
+     * @param out destination
+     * @throws IOException if the output throws it
+     */
+    public void encodeAll(Money[] values, DataOutput out) throws IOException {
+        writeVarint(out, values.length);
+        for (Money money : values){
+            this.encode(money, out);
+        }
+    }
+    
+    /**
+     * Reads an array, which was written by encodeAll(), from the input
+     * @param in source
+     * @return new array of Money objects
+     * @throws IOException if the input throws it, or the bytes are not a valid encoded array
+     * @throws UnknownCurrencyException if a currency code is not registered
+     */
+    public Money[] decodeAll(DataInput in) throws IOException, UnknownCurrencyException {
+        int count;
+        try {
+            count = checkLength(readVarint(in));
+        } catch (IllegalArgumentException ex){
+            throw new StreamCorruptedException(ex.getMessage());
+        }
+        // the array grows with decoded values, so a corrupted count fails with EOFException, 
+        // before the array is more than twice larger than values of the input
+        Money[] values = new Money[Math.min(count, VALUES_CHUNK_SIZE)];
+        for (int i = 0; i < count; i++){
+            if (i == values.length) values = Arrays.copyOf(values, (int) Math.min(count, 2L * i));
+            values[i] = this.decode(in);
+        }
+        return values;
+    }
+    
+    /**
+     * Returns a total number of bytes, which encodeAll() writes for the array
+     * @param values Money objects
+     * @return encoded size in bytes
+     */
+    public int encodedSize(Money[] values){
+        int size = varintSize(values.length);
+        for (Money money : values){
+            size += this.encodedSize(money);
+        }
+        return size;
+    }
+    
+    /**
+     * Maps signed values to unsigned, so values with a small magnitude have a short encoding
+     */
+    private static long zigzag(long value){
+        return (value << 1) ^ (value >> 63);
+    }
+    
+    private static long unzigzag(long value){
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    private static int varintSize(long value){
+        int size = 1;
+        while ((value & ~0x7FL) != 0){
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+    
+    private static void putVarint(ByteBuffer buffer, long value){
+        while ((value & ~0x7FL) != 0){
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+    
+    private static void writeVarint(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0){
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+    
+    private static long getVarint(ByteBuffer buffer){
+        long result = 0;
+        for (int i = 0; i < MAX_VARINT_SIZE; i++){
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) return result;
+        }
+        throw new IllegalArgumentException("Malformed variable length value");
+    }
+    
+    private static long readVarint(DataInput in) throws IOException {
+        long result = 0;
+        for (int i = 0; i < MAX_VARINT_SIZE; i++){
+            byte b = in.readByte();
+            result |= (long) (b & 0x7F) << (7 * i);
+            if (b >= 0) return result;
+        }
+        throw new StreamCorruptedException("Malformed variable length value");
+    }
+    
+    /**
+     * Checks the byte count of a value, which does not fit into a long
+     */
+    private static int checkWideLength(long length){
+        if (length < 1 || length > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid length of a value: " + length);
+        return (int) length;
+    }
+    
+    /**
+     * Reads bytes in chunks, which double in size, so a corrupted length fails with EOFException, 
+     * before the allocated array is more than twice larger than bytes of the input
+     */
+    private static byte[] readBytes(DataInput in, int length) throws IOException {
+        byte[] bytes = new byte[Math.min(length, WIDE_CHUNK_SIZE)];
+        int read = 0;
+        while (true){
+            in.readFully(bytes, read, bytes.length - read);
+            read = bytes.length;
+            if (read == length) return bytes;
+            bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+        }
+    }
+    
+    private static int checkLength(long length){
+        if (length < 0 || length > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid length: " + length);
+        return (int) length;
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.util.Map;
+import java.util.stream.Collector;
+
+/**
+ * The class contains stream collectors, which sum Money objects.
+ * 
+ * Collectors add values to mutable primitive containers, so no intermediate Money objects are created.
+ * Both collectors have combiners and can be used with parallel streams.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyCollectors {
+    
+    private MoneyCollectors(){
+    }
+    
+    /**
+     * Returns a collector, which sums values of the currency. All values should have the currency,
+     * otherwise an exception will be thrown
+     * 
+     * Example: Money total = payments.stream().collect(MoneyCollectors.summing(Currency.of("EUR")));
+     * 
+     * @param currency Currency of values
+     * @return a collector, which produces a sum (zero, if there are no values)
+     * @throws CurrenciesDontMatchException (during collection) if any value has a different currency
+     */
+    public static Collector<Money, ?, Money> summing(Currency currency){
+        return Collector.of(
+                MinorUnitsAccumulator::new, 
+                (sum, money) -> {
+                    if (money.getCurrency() != currency) throw new CurrenciesDontMatchException();
+                    sum.add(money);
+                },
+                (left, right) -> {
+                    left.add(right);
+                    return left;
+                },
+                sum -> sum.toMoney(currency),
+                Collector.Characteristics.UNORDERED);
+    }
+    
+    /**
+     * Returns a collector, which sums values per currency. Values of different currencies are allowed
+     * 
+     * Example: Map&lt;Currency, Money&gt; totals = payments.parallelStream().collect(MoneyCollectors.summingByCurrency());
+     * 
+     * @return a collector, which produces a map with a sum for each currency, which has at least one value
+     */
+    public static Collector<Money, ?, Map<Currency, Money>> summingByCurrency(){
+        return Collector.of(
+                CurrencySums::new, 
+                CurrencySums::add,
+                (left, right) -> {
+                    left.add(right);
+                    return left;
+                },
+                CurrencySums::toMap,
+                Collector.Characteristics.UNORDERED);
+    }
+}
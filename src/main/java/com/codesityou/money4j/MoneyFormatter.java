@@ -0,0 +1,154 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.text.NumberFormat;
+import java.util.Locale;
+
+/**
+ * The class writes Money values in the format CCC XXX.DD, using the rules of a locale.
+ * 
+ * All locale rules (separators, grouping size, sign prefixes and suffixes, digits) are 
+ * read once from the NumberFormat of the locale, when the formatter is created. 
+ * Formatting itself writes characters directly from minor units and does not use NumberFormat or BigDecimal.
+ * Instances are immutable and can be shared between threads. Use Currency.getFormatter() to get a cached instance.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class MoneyFormatter {
+    
+    private static final long[] POWERS_OF_TEN = new long[19];
+    
+    static {
+        long power = 1;
+        for (int i = 0; i < POWERS_OF_TEN.length; i++){
+            POWERS_OF_TEN[i] = power;
+            power *= 10;
+        }
+    }
+    
+    private final String symbol;
+    private final int decimalParts;
+    private final long factor;
+    private final char zeroDigit;
+    private final char decimalSeparator;
+    private final char groupingSeparator;
+    private final int groupingSize;
+    private final String positivePrefix;
+    private final String positiveSuffix;
+    private final String negativePrefix;
+    private final String negativeSuffix;
+    
+    /**
+     * Creates a new formatter, which uses the rules of the locale 
+     * @param currency Currency object
+     * @param locale locale, which defines the number format
+     */
+    MoneyFormatter(Currency currency, Locale locale){
+        this.symbol = currency.getSymbol();
+        this.decimalParts = currency.getDecimalParts();
+        this.factor = currency.getFactor();
+        NumberFormat nf = NumberFormat.getInstance(locale);
+        DecimalFormat df = (nf instanceof DecimalFormat) ? (DecimalFormat) nf : new DecimalFormat("#,##0.###", DecimalFormatSymbols.getInstance(locale));
+        DecimalFormatSymbols symbols = df.getDecimalFormatSymbols();
+        this.zeroDigit = symbols.getZeroDigit();
+        this.decimalSeparator = symbols.getDecimalSeparator();
+        this.groupingSeparator = symbols.getGroupingSeparator();
+        this.groupingSize = (df.isGroupingUsed() && df.getGroupingSize() > 0) ? df.getGroupingSize() : Integer.MAX_VALUE;
+        this.positivePrefix = df.getPositivePrefix();
+        this.positiveSuffix = df.getPositiveSuffix();
+        this.negativePrefix = df.getNegativePrefix();
+        this.negativeSuffix = df.getNegativeSuffix();
+    }
+    
+    /**
+     * Writes a value in minor units
+     * @param out destination
+     * @param minor value in minor currency units
+     * @throws IOException if the Appendable throws it
+     */
+    void appendTo(Appendable out, long minor) throws IOException {
+        // the absolute value of Long.MIN_VALUE does not fit into a long
+        if (minor == Long.MIN_VALUE){
+            appendTo(out, BigInteger.valueOf(minor));
+            return;
+        }
+        boolean negative = minor < 0;
+        long abs = negative ? -minor : minor;
+        long integer = abs / this.factor;
+        long fraction = abs % this.factor;
+        
+        out.append(this.symbol).append(' ');
+        out.append(negative ? this.negativePrefix : this.positivePrefix);
+        int digits = 1;
+        while (digits < POWERS_OF_TEN.length && integer >= POWERS_OF_TEN[digits]){
+            digits++;
+        }
+        for (int position = digits - 1; position >= 0; position--){
+            appendDigit(out, (int) ((integer / POWERS_OF_TEN[position]) % 10));
+            appendGroupingSeparator(out, position);
+        }
+        if (this.decimalParts > 0){
+            out.append(this.decimalSeparator);
+            for (int position = this.decimalParts - 1; position >= 0; position--){
+                appendDigit(out, (int) ((fraction / POWERS_OF_TEN[position]) % 10));
+            }
+        }
+        out.append(negative ? this.negativeSuffix : this.positiveSuffix);
+    }
+    
+    /**
+     * Writes a value in minor units, which does not fit into a long
+     * @param out destination
+     * @param minor value in minor currency units
+     * @throws IOException if the Appendable throws it
+     */
+    void appendTo(Appendable out, BigInteger minor) throws IOException {
+        boolean negative = minor.signum() < 0;
+        String abs = minor.abs().toString();
+        // the value is padded with zeros, so it has at least one integer digit
+        int integerDigits = Math.max(abs.length() - this.decimalParts, 1);
+        int leadingZeros = integerDigits + this.decimalParts - abs.length();
+        
+        out.append(this.symbol).append(' ');
+        out.append(negative ? this.negativePrefix : this.positivePrefix);
+        for (int i = 0; i < integerDigits + this.decimalParts; i++){
+            if (i == integerDigits) out.append(this.decimalSeparator);
+            int digit = (i < leadingZeros) ? 0 : abs.charAt(i - leadingZeros) - '0';
+            appendDigit(out, digit);
+            if (i < integerDigits) appendGroupingSeparator(out, integerDigits - 1 - i);
+        }
+        out.append(negative ? this.negativeSuffix : this.positiveSuffix);
+    }
+    
+    private void appendDigit(Appendable out, int digit) throws IOException {
+        out.append((char) (this.zeroDigit + digit));
+    }
+    
+    /**
+     * Writes a grouping separator after the integer digit, if required
+     * @param position position of the digit, counting from the decimal separator
+     */
+    private void appendGroupingSeparator(Appendable out, int position) throws IOException {
+        if (position > 0 && position % this.groupingSize == 0) out.append(this.groupingSeparator);
+    }
+}
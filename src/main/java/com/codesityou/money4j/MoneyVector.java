@@ -0,0 +1,337 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+/**
+ * The class stores a sequence of monetary values in columns: amounts in minor currency units
+ * are kept in a long[] array, and currencies are kept as ordinals in a short[] array. 
+ * A single currency vector does not keep currencies per element at all.
+ * 
+ * Use the vector to keep large amounts of values in memory: an element takes 8 bytes 
+ * (10 bytes in a mixed currency vector), while a Money object takes several dozens of bytes. 
+ * Amounts must fit into a long. Arithmetic operations return a new vector. 
+ * The class is not thread safe.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class MoneyVector {
+    
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /**
+     * The currency of all elements, or null for a mixed currency vector
+     */
+    private final Currency currency;
+    private long[] amounts;
+    /**
+     * Currency ordinals of elements, or null for a single currency vector
+     */
+    private short[] currencies;
+    private int size;
+    
+    /**
+     * Private constructor. Instead, use static factory methods of() and mixed()
+     * 
+     * @param currency
+     * @param amounts
+     * @param currencies
+     * @param size
+     */
+    private MoneyVector(Currency currency, long[] amounts, short[] currencies, int size){
+        this.currency = currency;
+        this.amounts = amounts;
+        this.currencies = currencies;
+        this.size = size;
+    }
+    
+    /**
+     * The static factory method, which creates a new empty vector, which can contain only values of the currency
+     * 
+     * @param currency Currency of all elements
+     * @return new MoneyVector instance
+     */
+    public static MoneyVector of(Currency currency){
+        return of(currency, DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * The static factory method, which creates a new empty vector, which can contain only values of the currency
+     * 
+     * @param currency Currency of all elements
+     * @param capacity expected number of elements
+     * @return new MoneyVector instance
+     */
+    public static MoneyVector of(Currency currency, int capacity){
+        return new MoneyVector(currency, new long[capacity], null, 0);
+    }
+    
+    /**
+     * The static factory method, which creates a new empty vector, which can contain values of different currencies
+     * 
+     * @return new MoneyVector instance
+     */
+    public static MoneyVector mixed(){
+        return mixed(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * The static factory method, which creates a new empty vector, which can contain values of different currencies
+     * 
+     * @param capacity expected number of elements
+     * @return new MoneyVector instance
+     */
+    public static MoneyVector mixed(int capacity){
+        return new MoneyVector(null, new long[capacity], new short[capacity], 0);
+    }
+    
+    /**
+     * Returns a number of elements
+     * @return size of the vector
+     */
+    public int size(){
+        return this.size;
+    }
+    
+    /**
+     * Checks if the vector can contain values of different currencies
+     * @return true for a mixed currency vector, false for a single currency vector
+     */
+    public boolean isMixed(){
+        return this.currency == null;
+    }
+    
+    /**
+     * Appends a Money value to the end of the vector
+     * @param money Money object
+     * @return this vector
+     * @throws CurrenciesDontMatchException if this is a single currency vector of a different currency
+     * @throws ArithmeticException if the value does not fit into a long
+     */
+    public MoneyVector append(Money money) throws CurrenciesDontMatchException {
+        return this.append(money.toMinorUnits(), money.getCurrency());
+    }
+    
+    /**
+     * Appends a value in minor units of the currency to the end of the vector
+     * @param minor value in minor currency units
+     * @param currency Currency object
+     * @return this vector
+     * @throws CurrenciesDontMatchException if this is a single currency vector of a different currency
+     */
+    public MoneyVector append(long minor, Currency currency) throws CurrenciesDontMatchException {
+        if (this.currency != null && this.currency != currency) throw new CurrenciesDontMatchException();
+        if (this.size == this.amounts.length) this.grow();
+        this.amounts[this.size] = minor;
+        if (this.currencies != null) this.currencies[this.size] = (short) currency.getOrdinal();
+        this.size++;
+        return this;
+    }
+    
+    /**
+     * Returns an element as a Money object
+     * @param index index of the element
+     * @return new Money instance
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Money get(int index){
+        return Money.ofMinor(this.getMinorUnits(index), this.getCurrency(index));
+    }
+    
+    /**
+     * Returns an element value in minor currency units, without creating a Money object
+     * @param index index of the element
+     * @return value in minor currency units
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public long getMinorUnits(int index){
+        this.checkIndex(index);
+        return this.amounts[index];
+    }
+    
+    /**
+     * Returns a currency of the element
+     * @param index index of the element
+     * @return Currency object
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public Currency getCurrency(int index){
+        this.checkIndex(index);
+        if (this.currency != null) return this.currency;
+        return CurrencyRegistry.byOrdinal(this.currencies[index]);
+    }
+    
+    /**
+     * Returns a new vector, which contains a copy of elements in the range [from, to)
+     * @param from index of the first element
+     * @param to index after the last element
+     * @return new MoneyVector instance
+     * @throws IndexOutOfBoundsException if the range is out of bounds
+     */
+    public MoneyVector slice(int from, int to){
+        if (from < 0 || to > this.size || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of bounds of size " + this.size);
+        }
+        long[] resultAmounts = Arrays.copyOfRange(this.amounts, from, to);
+        short[] resultCurrencies = (this.currencies == null) ? null : Arrays.copyOfRange(this.currencies, from, to);
+        return new MoneyVector(this.currency, resultAmounts, resultCurrencies, to - from);
+    }
+    
+    /**
+     * Adds elements of two vectors and returns a new vector, which contains element-wise sums.
+     * Elements with the same index should have same currency, otherwise an exception will be thrown
+     * 
+     * @param other The other vector of the same size
+     * @return new MoneyVector instance
+     * @throws CurrenciesDontMatchException if elements with the same index have different currencies
+     * @throws IllegalArgumentException if vectors have different sizes
+     * @throws ArithmeticException if a sum does not fit into a long
+     */
+    public MoneyVector plus(MoneyVector other) throws CurrenciesDontMatchException {
+        MoneyVector result = this.combine(other);
+        long[] a = this.amounts;
+        long[] b = other.amounts;
+        long[] r = result.amounts;
+        for (int i = 0; i < this.size; i++){
+            r[i] = Math.addExact(a[i], b[i]);
+        }
+        return result;
+    }
+    
+    /**
+     * Subtracts elements of the other vector and returns a new vector, which contains element-wise differences.
+     * Elements with the same index should have same currency, otherwise an exception will be thrown
+     * 
+     * @param other The other vector of the same size
+     * @return new MoneyVector instance
+     * @throws CurrenciesDontMatchException if elements with the same index have different currencies
+     * @throws IllegalArgumentException if vectors have different sizes
+     * @throws ArithmeticException if a difference does not fit into a long
+     */
+    public MoneyVector minus(MoneyVector other) throws CurrenciesDontMatchException {
+        MoneyVector result = this.combine(other);
+        long[] a = this.amounts;
+        long[] b = other.amounts;
+        long[] r = result.amounts;
+        for (int i = 0; i < this.size; i++){
+            r[i] = Math.subtractExact(a[i], b[i]);
+        }
+        return result;
+    }
+    
+    /**
+     * Multiplies all elements by the long value
+     * @param ln Long value, which represents a multiplier
+     * @return new MoneyVector instance
+     * @throws ArithmeticException if a product does not fit into a long
+     */
+    public MoneyVector multiply(long ln){
+        MoneyVector result = this.copyShape();
+        long[] a = this.amounts;
+        long[] r = result.amounts;
+        for (int i = 0; i < this.size; i++){
+            r[i] = Math.multiplyExact(a[i], ln);
+        }
+        return result;
+    }
+    
+    /**
+     * Multiplies elements by multipliers with the same index (e.g. prices by quantities)
+     * @param multipliers array of the same size as this vector
+     * @return new MoneyVector instance
+     * @throws IllegalArgumentException if the array has a different size
+     * @throws ArithmeticException if a product does not fit into a long
+     */
+    public MoneyVector multiply(long[] multipliers){
+        if (multipliers.length != this.size) throw new IllegalArgumentException("Sizes do not match!");
+        MoneyVector result = this.copyShape();
+        long[] a = this.amounts;
+        long[] r = result.amounts;
+        for (int i = 0; i < this.size; i++){
+            r[i] = Math.multiplyExact(a[i], multipliers[i]);
+        }
+        return result;
+    }
+    
+    /**
+     * Converts elements to the target currency with rates from the snapshot. Used by RateSnapshot.convert()
+     */
+    MoneyVector convert(RateSnapshot rates, Currency to, RoundingMode mode) throws UnknownRateException {
+        MoneyVector result = new MoneyVector(to, new long[this.size], null, this.size);
+        if (this.currency != null) {
+            if (this.size > 0) rates.conversion(this.currency, to, mode).convert(this.amounts, result.amounts, 0, this.size);
+            return result;
+        }
+        Conversion[] conversions = new Conversion[CurrencyRegistry.size()];
+        for (int i = 0; i < this.size; i++){
+            int ordinal = this.currencies[i];
+            Conversion conversion = conversions[ordinal];
+            if (conversion == null) {
+                conversion = rates.conversion(CurrencyRegistry.byOrdinal(ordinal), to, mode);
+                conversions[ordinal] = conversion;
+            }
+            result.amounts[i] = conversion.convert(this.amounts[i]);
+        }
+        return result;
+    }
+    
+    /**
+     * Creates an empty result of a binary operation, after checking sizes and currencies of both vectors.
+     * A result is a single currency vector, if both vectors are single currency vectors
+     */
+    private MoneyVector combine(MoneyVector other) throws CurrenciesDontMatchException {
+        if (this.size != other.size) throw new IllegalArgumentException("Sizes do not match!");
+        if (this.currency != null && other.currency != null){
+            if (this.currency != other.currency) throw new CurrenciesDontMatchException();
+            return new MoneyVector(this.currency, new long[this.size], null, this.size);
+        }
+        short[] resultCurrencies = new short[this.size];
+        for (int i = 0; i < this.size; i++){
+            int ordinal = this.ordinalAt(i);
+            if (ordinal != other.ordinalAt(i)) throw new CurrenciesDontMatchException();
+            resultCurrencies[i] = (short) ordinal;
+        }
+        return new MoneyVector(null, new long[this.size], resultCurrencies, this.size);
+    }
+    
+    /**
+     * Creates an empty result of an unary operation with same size and currencies
+     */
+    private MoneyVector copyShape(){
+        short[] resultCurrencies = (this.currencies == null) ? null : Arrays.copyOf(this.currencies, this.size);
+        return new MoneyVector(this.currency, new long[this.size], resultCurrencies, this.size);
+    }
+    
+    private int ordinalAt(int index){
+        return (this.currencies == null) ? this.currency.getOrdinal() : this.currencies[index];
+    }
+    
+    private void grow(){
+        int capacity = Math.max(this.amounts.length + (this.amounts.length >> 1), DEFAULT_CAPACITY);
+        this.amounts = Arrays.copyOf(this.amounts, capacity);
+        if (this.currencies != null) this.currencies = Arrays.copyOf(this.currencies, capacity);
+    }
+    
+    private void checkIndex(int index){
+        if (index < 0 || index >= this.size) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds of size " + this.size);
+        }
+    }
+}
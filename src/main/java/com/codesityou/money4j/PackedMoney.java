@@ -0,0 +1,199 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+/**
+ * The class contains static methods, which work with monetary values packed into a single long, 
+ * so values can be kept in long[] arrays, primitive collections and off-heap memory at 8 bytes each.
+ * 
+ * A packed value keeps the currency ordinal + 1 in the top 10 bits, and the amount in minor units 
+ * in the remaining 54 bits. So 0 is never a valid packed value, and can mark empty slots of a table 
+ * (e.g. to group values by amount in an open addressing hash map, with keys hashed by hash()).
+ * Amounts must be in the range from -2^53 to 2^53 - 1 (e.g. about 90 trillion EUR).
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class PackedMoney {
+    
+    /**
+     * The minimum amount in minor units, which can be packed
+     */
+    public static final long MIN_AMOUNT = -(1L << 53);
+    
+    /**
+     * The maximum amount in minor units, which can be packed
+     */
+    public static final long MAX_AMOUNT = (1L << 53) - 1;
+    
+    private static final int AMOUNT_BITS = 54;
+    private static final long AMOUNT_MASK = (1L << AMOUNT_BITS) - 1;
+    private static final long CURRENCY_MASK = ~AMOUNT_MASK;
+    
+    private PackedMoney(){
+    }
+    
+    /**
+     * Checks if the value can be packed
+     * 
+     * @param money Money object
+     * @return true if the amount is in the supported range
+     */
+    public static boolean fits(Money money){
+        return money.isCompact() && fits(money.toMinorUnits());
+    }
+    
+    /**
+     * Packs the value
+     * 
+     * @param money Money object
+     * @return packed value
+     * @throws ArithmeticException if the amount is out of the supported range
+     */
+    public static long of(Money money){
+        if (!money.isCompact()) throw outOfRange();
+        return of(money.toMinorUnits(), money.getCurrency());
+    }
+    
+    /**
+     * Packs the amount and the currency
+     * 
+     * @param minor amount in minor units
+     * @param currency Currency object
+     * @return packed value
+     * @throws ArithmeticException if the amount is out of the supported range
+     */
+    public static long of(long minor, Currency currency){
+        if (!fits(minor)) throw outOfRange();
+        return ((long) (currency.getOrdinal() + 1) << AMOUNT_BITS) | (minor & AMOUNT_MASK);
+    }
+    
+    /**
+     * Unpacks the value
+     * 
+     * @param packed packed value
+     * @return Money object
+     */
+    public static Money toMoney(long packed){
+        return Money.valueOf(amountOf(packed), currencyOf(packed));
+    }
+    
+    /**
+     * Returns the currency of the packed value
+     * 
+     * @param packed packed value
+     * @return Currency object
+     */
+    public static Currency currencyOf(long packed){
+        return CurrencyRegistry.byOrdinal((int) (packed >>> AMOUNT_BITS) - 1);
+    }
+    
+    /**
+     * Returns the amount of the packed value
+     * 
+     * @param packed packed value
+     * @return amount in minor units
+     */
+    public static long amountOf(long packed){
+        // restores the sign of the amount
+        return (packed << (Long.SIZE - AMOUNT_BITS)) >> (Long.SIZE - AMOUNT_BITS);
+    }
+    
+    /**
+     * Adds two packed values
+     * 
+     * @param a packed value
+     * @param b packed value
+     * @return packed sum
+     * @throws CurrenciesDontMatchException if values have different currencies
+     * @throws ArithmeticException if the sum is out of the supported range
+     */
+    public static long plus(long a, long b) throws CurrenciesDontMatchException {
+        checkCurrency(a, b);
+        // amounts have 54 bits, so the sum of them can not overflow a long
+        return pack(a, amountOf(a) + amountOf(b));
+    }
+    
+    /**
+     * Subtracts two packed values
+     * 
+     * @param a packed value
+     * @param b packed value
+     * @return packed difference
+     * @throws CurrenciesDontMatchException if values have different currencies
+     * @throws ArithmeticException if the difference is out of the supported range
+     */
+    public static long minus(long a, long b) throws CurrenciesDontMatchException {
+        checkCurrency(a, b);
+        return pack(a, amountOf(a) - amountOf(b));
+    }
+    
+    /**
+     * Compares two packed values
+     * 
+     * @param a packed value
+     * @param b packed value
+     * @return a negative integer, zero, or a positive integer as the first amount is less than, 
+     * equal to, or greater than the second
+     * @throws CurrenciesDontMatchException if values have different currencies
+     */
+    public static int compare(long a, long b) throws CurrenciesDontMatchException {
+        checkCurrency(a, b);
+        return Long.compare(amountOf(a), amountOf(b));
+    }
+    
+    /**
+     * Returns a well distributed hash of the packed value, so both low and high bits of the hash 
+     * can be used as an index of a table (e.g. of an open addressing hash map, where 0 marks empty slots)
+     * 
+     * @param packed packed value
+     * @return hash of the value
+     */
+    public static int hash(long packed){
+        return mix(packed);
+    }
+    
+    /**
+     * The finalizer of MurmurHash3: every bit of the argument affects every bit of the result
+     */
+    static int mix(long value){
+        long x = value;
+        x = (x ^ (x >>> 33)) * 0xff51afd7ed558ccdL;
+        x = (x ^ (x >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (x ^ (x >>> 33));
+    }
+    
+    private static boolean fits(long minor){
+        return minor >= MIN_AMOUNT && minor <= MAX_AMOUNT;
+    }
+    
+    /**
+     * Packs the amount with the currency bits of the packed value
+     */
+    private static long pack(long packed, long minor){
+        if (!fits(minor)) throw outOfRange();
+        return (packed & CURRENCY_MASK) | (minor & AMOUNT_MASK);
+    }
+    
+    private static void checkCurrency(long a, long b) throws CurrenciesDontMatchException {
+        if (((a ^ b) & CURRENCY_MASK) != 0) throw new CurrenciesDontMatchException();
+    }
+    
+    private static ArithmeticException outOfRange(){
+        return new ArithmeticException("Amount is out of the range of a packed value");
+    }
+}
@@ -0,0 +1,168 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * The class represents an exchange rate between two currencies: 1 unit of from currency = value units of to currency.
+ * 
+ * The value is kept as a fixed-point long with 10 decimal digits (e.g. 1.0854 is kept as 10854000000).
+ * The class is immutable.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class Rate {
+    
+    /**
+     * A number of decimal digits of rate values
+     */
+    public static final int DECIMAL_DIGITS = 10;
+    
+    /**
+     * The fixed-point representation of 1.0
+     */
+    static final long ONE = 10_000_000_000L;
+    
+    private static final BigDecimal MAX_VALUE = BigDecimal.valueOf(Long.MAX_VALUE, DECIMAL_DIGITS);
+    
+    private final Currency from;
+    private final Currency to;
+    private final long value;
+    
+    /**
+     * Private constructor. Instead, use static factory methods of() and ofFixedPoint()
+     * 
+     * @param from
+     * @param to
+     * @param value
+     */
+    private Rate(Currency from, Currency to, long value){
+        this.from = from;
+        this.to = to;
+        this.value = value;
+    }
+    
+    /**
+     * The static factory method, which creates a new rate. The value is rounded to 10 decimal digits
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @param value positive exchange rate (e.g. 1.0854 for EUR/USD)
+     * @return new Rate instance
+     * @throws IllegalArgumentException if the value is not positive, or too small or too large for 10 decimal digits
+     */
+    public static Rate of(Currency from, Currency to, BigDecimal value){
+        BigDecimal rounded = value.setScale(DECIMAL_DIGITS, RoundingMode.HALF_EVEN);
+        if (rounded.signum() <= 0 || rounded.compareTo(MAX_VALUE) > 0) {
+            throw new IllegalArgumentException("Exchange rate " + value + " is out of the supported range");
+        }
+        return new Rate(from, to, rounded.unscaledValue().longValue());
+    }
+    
+    /**
+     * The static factory method, which creates a new rate from the fixed-point value 
+     * with 10 decimal digits (e.g. 10854000000 for 1.0854)
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @param value positive fixed-point value
+     * @return new Rate instance
+     * @throws IllegalArgumentException if the value is not positive
+     */
+    public static Rate ofFixedPoint(Currency from, Currency to, long value){
+        if (value <= 0) throw new IllegalArgumentException("Exchange rate should be positive");
+        return new Rate(from, to, value);
+    }
+    
+    /**
+     * Returns the source currency
+     * @return Currency object
+     */
+    public Currency getFrom(){
+        return this.from;
+    }
+    
+    /**
+     * Returns the target currency
+     * @return Currency object
+     */
+    public Currency getTo(){
+        return this.to;
+    }
+    
+    /**
+     * Returns the value of the rate
+     * @return BigDecimal with 10 decimal digits
+     */
+    public BigDecimal getValue(){
+        return BigDecimal.valueOf(this.value, DECIMAL_DIGITS);
+    }
+    
+    /**
+     * Returns the fixed-point value of the rate with 10 decimal digits
+     * @return fixed-point value
+     */
+    public long getFixedPointValue(){
+        return this.value;
+    }
+    
+    /**
+     * Returns the rate in the opposite direction, rounded to 10 decimal digits
+     * @return new Rate instance
+     * @throws IllegalArgumentException if the inverse value is out of the supported range
+     */
+    public Rate inverse(){
+        return of(this.to, this.from, BigDecimal.ONE.divide(this.getValue(), DECIMAL_DIGITS, RoundingMode.HALF_EVEN));
+    }
+    
+    /**
+     * Returns a cross rate from this rate and the rate from the target currency 
+     * (e.g. GBP/JPY from GBP/EUR and EUR/JPY), rounded to 10 decimal digits
+     * @param next rate from the target currency of this rate
+     * @return new Rate instance
+     * @throws IllegalArgumentException if the next rate does not start with the target currency of this rate,
+     * or the cross value is out of the supported range
+     */
+    public Rate cross(Rate next){
+        if (next.from != this.to) throw new IllegalArgumentException("Rates " + this.from.getCode() + "/" + this.to.getCode() 
+                + " and " + next.from.getCode() + "/" + next.to.getCode() + " can not be crossed");
+        return of(this.from, next.to, this.getValue().multiply(next.getValue()));
+    }
+    
+    /**
+     * Overriden version of equals() method
+     * 
+     * Two rates are equal if they have same currencies and same value
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (obj instanceof Rate == false) return false;
+        Rate r = (Rate) obj;
+        return r.from == this.from && r.to == this.to && r.value == this.value;
+    }
+    
+    /**
+     * Overriden version of hashCode() method, consistent with equals()
+     */
+    @Override
+    public int hashCode() {
+        return (this.from.hashCode() * 31 + this.to.hashCode()) * 31 + Long.hashCode(this.value);
+    }
+}
@@ -0,0 +1,710 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The class caches exchange rates of a RateProvider and derives rates, which the provider does not publish.
+ * 
+ * Published rates ("legs") are kept with a time to live, which can be set per pair, and are evicted
+ * in the approximately least recently used order (the clock algorithm), when the cache is full. Pairs, which the provider
+ * does not publish, are remembered with the same time to live, so a pair, which is published later, is found after it expires.
+ * A rate, which is not published, is derived from the inverse pair or by triangulation through a pivot currency
+ * (e.g. GBP/JPY = GBP/EUR * EUR/JPY). Derived rates are memoized and recomputed only when one of their legs is reloaded.
+ * Triangulation routes for all pairs are precomputed from known published pairs, and rebuilt
+ * only when the provider starts or stops to publish a pair.
+ * 
+ * The class is thread safe. Entries are kept in arrays, indexed by pairs of ordinals, and a request of a cached rate
+ * does not take the lock. The provider is called without holding the lock of the cache, so a slow provider
+ * does not block other requests. Concurrent requests of the same pair share one load.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class RateCache {
+    
+    private static final byte UNKNOWN = 0;
+    private static final byte PUBLISHED = 1;
+    private static final byte NOT_PUBLISHED = 2;
+    
+    private static final int NO_ROUTE = 0;
+    private static final int DIRECT = 1;
+    private static final int INVERSE = 2;
+    /**
+     * Triangulation routes are encoded as VIA + pivot * 4 + orientation of legs:
+     * bit 0 - the first leg is inverted, bit 1 - the second leg is inverted
+     */
+    private static final int VIA = 3;
+    
+    private final RateProvider provider;
+    private final Clock clock;
+    private final long defaultTtl;
+    /**
+     * Times to live, ttls[from * size + to], or null if all pairs have the default time to live
+     */
+    private final long[] ttls;
+    private final Currency[] pivots;
+    
+    private final int size;
+    /**
+     * Known publication status of pairs, status[from * size + to]. Guarded by the lock
+     */
+    private final byte[] status;
+    /**
+     * Precomputed routes, routes[from * size + to]. Routes are rebuilt into a new array, which replaces this one
+     */
+    private volatile int[] routes;
+    /**
+     * Published rates, legs[from * size + to]. A leg without a rate means, that the pair is not published
+     */
+    private final AtomicReferenceArray<Leg> legs;
+    /**
+     * Derived rates, derived[from * size + to]
+     */
+    private final AtomicReferenceArray<Derived> derived;
+    private final Residents legResidents;
+    private final Residents derivedResidents;
+    /**
+     * Loads in progress, loading[from * size + to]. Guarded by the lock
+     */
+    private final CompletableFuture<?>[] loading;
+    private final ReentrantLock lock;
+    
+    /**
+     * The version of the last loaded leg. Guarded by the lock
+     */
+    private long version;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    
+    /**
+     * Private constructor. Instead, use RateCache.Builder
+     */
+    private RateCache(Builder builder){
+        this.provider = builder.provider;
+        this.clock = builder.clock;
+        this.defaultTtl = builder.ttl;
+        this.pivots = builder.pivots;
+        this.size = CurrencyRegistry.size();
+        int pairs = this.size * this.size;
+        if (builder.ttls.isEmpty()) {
+            this.ttls = null;
+        } else {
+            this.ttls = new long[pairs];
+            Arrays.fill(this.ttls, builder.ttl);
+            for (Map.Entry<Integer, Long> ttl : builder.ttls.entrySet()) this.ttls[ttl.getKey()] = ttl.getValue();
+        }
+        this.status = new byte[pairs];
+        this.routes = new int[pairs];
+        this.legs = new AtomicReferenceArray<>(pairs);
+        this.derived = new AtomicReferenceArray<>(pairs);
+        this.legResidents = new Residents(Math.min(builder.maximumSize, pairs), pairs);
+        this.derivedResidents = new Residents(Math.min(builder.maximumSize, pairs), pairs);
+        this.loading = new CompletableFuture<?>[pairs];
+        this.lock = new ReentrantLock();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+    }
+    
+    /**
+     * The static factory method, which creates a builder of a cache
+     * 
+     * @param provider source of published rates
+     * @return new Builder instance
+     */
+    public static Builder builder(RateProvider provider){
+        if (provider == null) throw new NullPointerException("Rate provider is null");
+        return new Builder(provider);
+    }
+    
+    /**
+     * Returns the rate from one currency to another. A published rate is loaded from the provider,
+     * if it is not cached or expired
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @return Rate object
+     * @throws UnknownRateException if the rate is neither published, nor can be derived from published rates
+     */
+    public Rate getRate(Currency from, Currency to) throws UnknownRateException {
+        if (from == to) return Rate.ofFixedPoint(from, to, Rate.ONE);
+        int pair = this.index(from, to);
+        Rate rate = this.cached(pair);
+        if (rate != null) {
+            this.hits.increment();
+            return rate;
+        }
+        Request request = new Request();
+        this.lock.lock();
+        try {
+            request.version = this.version;
+            // the second attempt follows a rebuilt route, if the provider stopped to publish a leg
+            for (int attempt = 0; attempt < 2 && rate == null; attempt++) {
+                // the pair itself is checked again, when it is not published and the check expires
+                if (this.routes[pair] != DIRECT) this.probe(from, to, request);
+                if (this.routes[pair] == NO_ROUTE) this.discover(from, to, request);
+                rate = this.resolve(from, to, request);
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        if (rate == null) throw new UnknownRateException(from, to);
+        if (request.loads == 0) this.hits.increment();
+        return rate;
+    }
+    
+    /**
+     * Removes the cached rate of the pair, so it will be reloaded on the next request
+     * 
+     * @param from source currency
+     * @param to target currency
+     */
+    public void invalidate(Currency from, Currency to){
+        int pair = this.index(from, to);
+        this.lock.lock();
+        try {
+            this.legs.set(pair, null);
+            this.legResidents.remove(pair);
+            if (this.status[pair] == NOT_PUBLISHED) this.status[pair] = UNKNOWN;
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    
+    /**
+     * Removes all cached rates, so they will be reloaded on next requests.
+     * Pairs, which were not published, will be requested again
+     */
+    public void invalidateAll(){
+        this.lock.lock();
+        try {
+            for (int i = 0; i < this.status.length; i++) {
+                this.legs.set(i, null);
+                this.derived.set(i, null);
+                if (this.status[i] == NOT_PUBLISHED) this.status[i] = UNKNOWN;
+            }
+            this.legResidents.clear();
+            this.derivedResidents.clear();
+        } finally {
+            this.lock.unlock();
+        }
+    }
+    
+    /**
+     * Returns a number of requests, served without loading rates from the provider
+     * @return a number of hits
+     */
+    public long getHitCount(){
+        return this.hits.sum();
+    }
+    
+    /**
+     * Returns a number of rates, loaded from the provider
+     * @return a number of misses
+     */
+    public long getMissCount(){
+        return this.misses.sum();
+    }
+    
+    /**
+     * Returns a number of rates, removed from the cache, because they expired or the cache was full
+     * @return a number of evictions
+     */
+    public long getEvictionCount(){
+        return this.evictions.sum();
+    }
+    
+    /**
+     * Returns the rate, if the route of the pair and all its legs are cached and not expired,
+     * otherwise null. The method does not take the lock, and does not change the cache,
+     * except marking used entries for the eviction
+     */
+    private Rate cached(int pair){
+        int route = this.routes[pair];
+        if (route == NO_ROUTE) return null;
+        long now = this.clock.millis();
+        if (route == DIRECT) {
+            Leg leg = this.fresh(pair, now);
+            return (leg == null) ? null : leg.rate;
+        }
+        // the pair itself should be known as not published, until the check expires
+        if (this.fresh(pair, now) == null) return null;
+        Derived cached = this.derived.get(pair);
+        if (cached == null || cached.route != route) return null;
+        Leg first = this.fresh(cached.firstPair, now);
+        if (first == null || first.version != cached.firstVersion) return null;
+        if (cached.secondPair >= 0) {
+            Leg second = this.fresh(cached.secondPair, now);
+            if (second == null || second.version != cached.secondVersion) return null;
+        }
+        this.derivedResidents.touch(pair);
+        return cached.rate;
+    }
+    
+    /**
+     * Returns the cached leg of the pair, or null if it is not cached or expired
+     */
+    private Leg fresh(int pair, long now){
+        Leg leg = this.legs.get(pair);
+        if (leg == null || now - leg.loaded >= this.ttl(pair)) return null;
+        this.legResidents.touch(pair);
+        return leg;
+    }
+    
+    /**
+     * Returns the rate by the precomputed route, or null if a leg of the route is no longer published
+     * (the route is rebuilt in that case)
+     */
+    private Rate resolve(Currency from, Currency to, Request request){
+        int pair = this.index(from, to);
+        int route = this.routes[pair];
+        if (route == NO_ROUTE) return null;
+        if (route == DIRECT) {
+            Leg leg = this.leg(from, to, request);
+            return (leg == null) ? null : leg.rate;
+        }
+        Leg first;
+        Leg second = null;
+        if (route == INVERSE) {
+            first = this.leg(to, from, request);
+            if (first == null) return null;
+        } else {
+            Currency pivot = this.pivots[(route - VIA) >> 2];
+            first = ((route - VIA) & 1) == 0 ? this.leg(from, pivot, request) : this.leg(pivot, from, request);
+            if (first == null) return null;
+            second = ((route - VIA) & 2) == 0 ? this.leg(pivot, to, request) : this.leg(to, pivot, request);
+            if (second == null) return null;
+        }
+        long secondVersion = (second == null) ? 0 : second.version;
+        Derived cached = this.derived.get(pair);
+        if (cached != null && cached.route == route && cached.firstVersion == first.version
+                && cached.secondVersion == secondVersion) {
+            this.derivedResidents.touch(pair);
+            return cached.rate;
+        }
+        Rate rate;
+        if (second == null) {
+            rate = first.rate.inverse();
+        } else {
+            // inverted legs are divisors, so the cross rate is rounded only once
+            BigDecimal dividend = BigDecimal.ONE;
+            BigDecimal divisor = BigDecimal.ONE;
+            if (first.rate.getFrom() == from) {
+                dividend = first.rate.getValue();
+            } else {
+                divisor = first.rate.getValue();
+            }
+            if (second.rate.getTo() == to) {
+                dividend = dividend.multiply(second.rate.getValue());
+            } else {
+                divisor = divisor.multiply(second.rate.getValue());
+            }
+            rate = Rate.of(from, to, dividend.divide(divisor, Rate.DECIMAL_DIGITS, RoundingMode.HALF_EVEN));
+        }
+        int firstPair = this.index(first.rate.getFrom(), first.rate.getTo());
+        int secondPair = (second == null) ? -1 : this.index(second.rate.getFrom(), second.rate.getTo());
+        if (cached == null) this.admit(this.derived, this.derivedResidents, pair);
+        this.derived.set(pair, new Derived(rate, route, firstPair, first.version, secondPair, secondVersion));
+        return rate;
+    }
+    
+    /**
+     * Returns the published rate from the cache, or loads it from the provider.
+     * Returns null if the pair is not published
+     */
+    private Leg leg(Currency from, Currency to, Request request){
+        int pair = this.index(from, to);
+        Leg leg = this.legs.get(pair);
+        if (leg != null) {
+            if (this.clock.millis() - leg.loaded < this.ttl(pair)) {
+                // a leg, loaded by this request, is not marked as used, until it is requested again
+                if (leg.version <= request.version) this.legResidents.touch(pair);
+                return (leg.rate == null) ? null : leg;
+            }
+            this.legs.set(pair, null);
+            this.legResidents.remove(pair);
+            this.evictions.increment();
+        }
+        leg = this.load(from, to, request);
+        return (leg.rate == null) ? null : leg;
+    }
+    
+    /**
+     * Loads the rate from the provider and records, whether the pair is published.
+     * The lock is released during the load, and a concurrent load of the same pair is awaited instead.
+     * Returns the leg without a rate, if the pair is not published
+     */
+    @SuppressWarnings("unchecked")
+    private Leg load(Currency from, Currency to, Request request){
+        int pair = this.index(from, to);
+        CompletableFuture<Rate> pending = (CompletableFuture<Rate>) this.loading[pair];
+        Rate rate;
+        if (pending == null) {
+            pending = new CompletableFuture<>();
+            this.loading[pair] = pending;
+            this.misses.increment();
+            this.lock.unlock();
+            try {
+                rate = this.provider.getRate(from, to);
+                if (rate != null && (rate.getFrom() != from || rate.getTo() != to)) {
+                    throw new IllegalStateException("Rate provider returned " + rate.getFrom().getCode() + "/"
+                            + rate.getTo().getCode() + " for " + from.getCode() + "/" + to.getCode());
+                }
+                pending.complete(rate);
+            } catch (RuntimeException | Error e) {
+                pending.completeExceptionally(e);
+                throw e;
+            } finally {
+                this.lock.lock();
+                this.loading[pair] = null;
+            }
+        } else {
+            this.lock.unlock();
+            try {
+                rate = pending.join();
+            } catch (CompletionException e) {
+                throw (e.getCause() instanceof RuntimeException) ? (RuntimeException) e.getCause() : e;
+            } finally {
+                this.lock.lock();
+            }
+        }
+        request.loads++;
+        // the leg can already be stored by the request, which loaded the rate
+        Leg leg = this.legs.get(pair);
+        if (leg != null && leg.rate == rate) return leg;
+        if (leg == null) this.admit(this.legs, this.legResidents, pair);
+        leg = new Leg(rate, this.clock.millis(), ++this.version);
+        this.legs.set(pair, leg);
+        byte current = (rate == null) ? NOT_PUBLISHED : PUBLISHED;
+        if (this.status[pair] != current) {
+            this.status[pair] = current;
+            this.rebuildRoutes();
+        }
+        return leg;
+    }
+    
+    /**
+     * Loads pairs with the unknown status, which can form a route between currencies,
+     * until a route is found: the pair itself, the inverse pair, then legs through each pivot
+     */
+    private void discover(Currency from, Currency to, Request request){
+        int pair = this.index(from, to);
+        this.probe(from, to, request);
+        if (this.routes[pair] != NO_ROUTE) return;
+        this.probe(to, from, request);
+        for (Currency pivot : this.pivots) {
+            if (this.routes[pair] != NO_ROUTE) return;
+            if (pivot == from || pivot == to) continue;
+            if (this.probe(from, pivot, request) == false) this.probe(pivot, from, request);
+            if (this.probe(pivot, to, request) == false) this.probe(to, pivot, request);
+        }
+    }
+    
+    /**
+     * Loads the pair, if it is not known to be published, and the result of the last load expired.
+     * Returns true if the pair is published
+     */
+    private boolean probe(Currency from, Currency to, Request request){
+        int pair = this.index(from, to);
+        if (this.status[pair] != PUBLISHED) this.leg(from, to, request);
+        return this.status[pair] == PUBLISHED;
+    }
+    
+    /**
+     * Computes routes for all pairs: the published pair, the inverse of the published pair,
+     * or the cross of published (or inverted) legs through the first suitable pivot
+     */
+    private void rebuildRoutes(){
+        int[] routes = new int[this.size * this.size];
+        for (int from = 0; from < this.size; from++) {
+            for (int to = 0; to < this.size; to++) {
+                routes[from * this.size + to] = this.route(from, to);
+            }
+        }
+        this.routes = routes;
+    }
+    
+    private int route(int from, int to){
+        if (from == to) return NO_ROUTE;
+        if (this.isPublished(from, to)) return DIRECT;
+        if (this.isPublished(to, from)) return INVERSE;
+        for (int i = 0; i < this.pivots.length; i++) {
+            int pivot = this.pivots[i].getOrdinal();
+            if (pivot == from || pivot == to) continue;
+            int orientation;
+            if (this.isPublished(from, pivot)) {
+                orientation = 0;
+            } else if (this.isPublished(pivot, from)) {
+                orientation = 1;
+            } else {
+                continue;
+            }
+            if (this.isPublished(pivot, to)) {
+                return VIA + i * 4 + orientation;
+            } else if (this.isPublished(to, pivot)) {
+                return VIA + i * 4 + (orientation | 2);
+            }
+        }
+        return NO_ROUTE;
+    }
+    
+    private boolean isPublished(int from, int to){
+        return this.status[from * this.size + to] == PUBLISHED;
+    }
+    
+    /**
+     * Makes room for a new entry of the pair, evicting an entry, if the cache is full
+     */
+    private void admit(AtomicReferenceArray<?> entries, Residents residents, int pair){
+        int evicted = residents.add(pair);
+        if (evicted < 0) return;
+        Object entry = entries.getAndSet(evicted, null);
+        // the pair, which was not published, is requested again
+        if (entry instanceof Leg && ((Leg) entry).rate == null) this.status[evicted] = UNKNOWN;
+        this.evictions.increment();
+    }
+    
+    private long ttl(int pair){
+        return (this.ttls == null) ? this.defaultTtl : this.ttls[pair];
+    }
+    
+    private int index(Currency from, Currency to){
+        return from.getOrdinal() * this.size + to.getOrdinal();
+    }
+    
+    /**
+     * The state of a single request: the version of the cache, when the request took the lock, 
+     * and a number of loads, to count the request as a hit, if it made none
+     */
+    private static final class Request {
+        
+        private long version;
+        private int loads;
+    }
+    
+    /**
+     * Pairs with entries in the cache, which are evicted by the clock algorithm: a request marks the pair as used,
+     * and the eviction passes over the pairs, unmarking used ones, until it finds an unused pair.
+     * The pairs are guarded by the lock of the cache, marks are written by requests without the lock
+     */
+    private static final class Residents {
+        
+        private final int[] pairs;
+        /**
+         * Positions of pairs in the array of pairs plus one, positions[pair], or 0 if the pair has no entry
+         */
+        private final int[] positions;
+        private final byte[] used;
+        private int count;
+        private int hand;
+        
+        private Residents(int capacity, int pairs){
+            this.pairs = new int[capacity];
+            this.positions = new int[pairs];
+            this.used = new byte[pairs];
+        }
+        
+        private void touch(int pair){
+            // a race is harmless: a lost mark only makes the pair a candidate for the eviction
+            if (this.used[pair] == 0) this.used[pair] = 1;
+        }
+        
+        /**
+         * Adds the pair, and returns the evicted pair, or -1 if there was room for the pair
+         */
+        private int add(int pair){
+            int evicted = -1;
+            if (this.count == this.pairs.length) {
+                evicted = this.victim();
+                this.remove(evicted);
+            }
+            this.pairs[this.count++] = pair;
+            this.positions[pair] = this.count;
+            this.used[pair] = 0;
+            return evicted;
+        }
+        
+        private void remove(int pair){
+            int position = this.positions[pair] - 1;
+            if (position < 0) return;
+            int last = this.pairs[--this.count];
+            this.pairs[position] = last;
+            this.positions[last] = position + 1;
+            this.positions[pair] = 0;
+        }
+        
+        private void clear(){
+            for (int i = 0; i < this.count; i++) this.positions[this.pairs[i]] = 0;
+            this.count = 0;
+            this.hand = 0;
+        }
+        
+        private int victim(){
+            // after two passes the pair under the hand is evicted, even if requests marked it again
+            for (int step = 0; ; step++) {
+                if (this.hand >= this.count) this.hand = 0;
+                int pair = this.pairs[this.hand];
+                if (this.used[pair] == 0 || step >= 2 * this.count) return pair;
+                this.used[pair] = 0;
+                this.hand++;
+            }
+        }
+    }
+    
+    /**
+     * A published rate with the time of loading and the version, used to detect changes of legs of derived rates.
+     * The rate is null, if the pair is not published
+     */
+    private static final class Leg {
+        
+        private final Rate rate;
+        private final long loaded;
+        private final long version;
+        
+        private Leg(Rate rate, long loaded, long version){
+            this.rate = rate;
+            this.loaded = loaded;
+            this.version = version;
+        }
+    }
+    
+    /**
+     * A derived rate with the route and legs, which it was computed from
+     */
+    private static final class Derived {
+        
+        private final Rate rate;
+        private final int route;
+        private final int firstPair;
+        private final long firstVersion;
+        /**
+         * The pair of the second leg, or -1 for the inverse rate
+         */
+        private final int secondPair;
+        private final long secondVersion;
+        
+        private Derived(Rate rate, int route, int firstPair, long firstVersion, int secondPair, long secondVersion){
+            this.rate = rate;
+            this.route = route;
+            this.firstPair = firstPair;
+            this.firstVersion = firstVersion;
+            this.secondPair = secondPair;
+            this.secondVersion = secondVersion;
+        }
+    }
+    
+    /**
+     * The builder of RateCache
+     * 
+     * @author Iurii Mednikov
+     * @since 0.1
+     */
+    public static final class Builder {
+        
+        private final RateProvider provider;
+        private final Map<Integer, Long> ttls = new HashMap<>();
+        private Clock clock = Clock.systemUTC();
+        private long ttl = Duration.ofMinutes(1).toMillis();
+        private int maximumSize = 1024;
+        private Currency[] pivots = new Currency[]{Currency.of("EUR"), Currency.of("USD")};
+        
+        private Builder(RateProvider provider){
+            this.provider = provider;
+        }
+        
+        /**
+         * Sets the time to live of published rates and of results of pairs, which are not published. The default is 1 minute
+         * @param ttl positive duration
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl){
+            this.ttl = checkTtl(ttl);
+            return this;
+        }
+        
+        /**
+         * Sets the time to live of the rate of the pair (e.g. a shorter one for volatile pairs)
+         * @param from source currency
+         * @param to target currency
+         * @param ttl positive duration
+         * @return this builder
+         */
+        public Builder ttl(Currency from, Currency to, Duration ttl){
+            this.ttls.put(from.getOrdinal() * CurrencyRegistry.size() + to.getOrdinal(), checkTtl(ttl));
+            return this;
+        }
+        
+        /**
+         * Sets the maximum number of published rates and the maximum number of derived rates in the cache. 
+         * The default is 1024
+         * @param maximumSize positive size
+         * @return this builder
+         */
+        public Builder maximumSize(int maximumSize){
+            if (maximumSize <= 0) throw new IllegalArgumentException("Maximum size should be positive");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+        
+        /**
+         * Sets pivot currencies for triangulation, in the order of preference. The default is EUR, USD
+         * @param pivots pivot currencies
+         * @return this builder
+         */
+        public Builder pivots(Currency... pivots){
+            this.pivots = pivots.clone();
+            return this;
+        }
+        
+        /**
+         * Sets the clock, used to expire rates. The default is the system UTC clock
+         * @param clock clock
+         * @return this builder
+         */
+        public Builder clock(Clock clock){
+            this.clock = clock;
+            return this;
+        }
+        
+        /**
+         * Creates a new cache
+         * @return new RateCache instance
+         */
+        public RateCache build(){
+            return new RateCache(this);
+        }
+        
+        private static long checkTtl(Duration ttl){
+            if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("Time to live should be positive");
+            return ttl.toMillis();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * The class asynchronously loads exchange rates from a RateProvider and keeps them for a time to live.
+ * 
+ * Concurrent requests of the same pair, which is not loaded or expired, share a single load, so the provider 
+ * receives one call instead of one call per request. Optionally, a rate is refreshed ahead of expiry: 
+ * requests after the refresh time start a background load and get the current value without waiting. 
+ * An expired rate is served in the same way, while its reload is in progress, so only the first request 
+ * of a pair waits for the provider. An expired rate is not served, if it is older than the time to live 
+ * and the maximum staleness, or if its last reload failed, so requests get the error of the provider.
+ * 
+ * Loads run in a dedicated pool of daemon threads by default, as providers usually block on I/O.
+ * 
+ * The class is thread safe.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class RateLoader {
+    
+    private final RateProvider provider;
+    private final Executor executor;
+    private final Clock clock;
+    private final long ttl;
+    private final long refreshAfter;
+    private final long maxStale;
+    
+    private final int size;
+    private final ConcurrentMap<Integer, Entry> entries;
+    /**
+     * Loads in progress by pairs. A load is removed, after its rate is stored
+     */
+    private final ConcurrentMap<Integer, CompletableFuture<Rate>> loads;
+    
+    /**
+     * Private constructor. Instead, use RateLoader.Builder
+     */
+    private RateLoader(Builder builder){
+        this.provider = builder.provider;
+        this.executor = (builder.executor == null) ? defaultExecutor() : builder.executor;
+        this.clock = builder.clock;
+        this.ttl = builder.ttl;
+        this.refreshAfter = builder.refreshAfter;
+        this.maxStale = (builder.maxStale < 0) ? builder.ttl : builder.maxStale;
+        this.size = CurrencyRegistry.size();
+        this.entries = new ConcurrentHashMap<>();
+        this.loads = new ConcurrentHashMap<>();
+    }
+    
+    /**
+     * The static factory method, which creates a builder of a loader
+     * 
+     * @param provider source of rates
+     * @return new Builder instance
+     */
+    public static Builder builder(RateProvider provider){
+        if (provider == null) throw new NullPointerException("Rate provider is null");
+        return new Builder(provider);
+    }
+    
+    /**
+     * Returns the rate from one currency to another. The returned future is completed, if the rate is loaded. 
+     * An expired rate starts a reload, and is returned until the reload completes, unless it is older than 
+     * the time to live and the maximum staleness, or its previous reload failed. Otherwise, the future 
+     * is completed after the load, which is shared with concurrent requests of the pair. 
+     * The future is completed exceptionally with UnknownRateException, if the provider does not publish the pair, 
+     * or with the exception of the provider
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @return the future of Rate object
+     */
+    public CompletableFuture<Rate> getRate(Currency from, Currency to){
+        if (from == to) return CompletableFuture.completedFuture(Rate.ofFixedPoint(from, to, Rate.ONE));
+        int pair = from.getOrdinal() * this.size + to.getOrdinal();
+        Entry entry = this.entries.get(pair);
+        long age = 0;
+        if (entry != null) {
+            age = this.clock.millis() - entry.loaded;
+            if (age < this.ttl) {
+                if (this.refreshAfter > 0 && age >= this.refreshAfter) this.load(pair, from, to);
+                return CompletableFuture.completedFuture(entry.rate);
+            }
+        }
+        CompletableFuture<Rate> load = this.load(pair, from, to);
+        // the expired rate is served, until the reload completes, if it is not too old and the last reload did not fail
+        if (entry != null && !load.isDone() && !entry.reloadFailed && age - this.ttl < this.maxStale) {
+            return CompletableFuture.completedFuture(entry.rate);
+        }
+        // callers get own dependent futures, so completing one of them does not affect others
+        return load.thenApply(rate -> rate);
+    }
+    
+    /**
+     * Removes the loaded rate of the pair, so it will be loaded on the next request
+     * 
+     * @param from source currency
+     * @param to target currency
+     */
+    public void invalidate(Currency from, Currency to){
+        this.entries.remove(from.getOrdinal() * this.size + to.getOrdinal());
+    }
+    
+    /**
+     * Creates a pool of daemon threads, which are stopped after a minute without loads
+     */
+    private static Executor defaultExecutor(){
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "money4j-rate-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Returns the load in progress of the pair, or starts a new one
+     */
+    private CompletableFuture<Rate> load(int pair, Currency from, Currency to){
+        CompletableFuture<Rate> load = new CompletableFuture<>();
+        CompletableFuture<Rate> current = this.loads.putIfAbsent(pair, load);
+        if (current != null) return current;
+        try {
+            this.executor.execute(() -> {
+                try {
+                    Rate rate = this.provider.getRate(from, to);
+                    if (rate == null) {
+                        // the pair is no longer published, so its expired rate is not served
+                        this.entries.remove(pair);
+                        throw new UnknownRateException(from, to);
+                    }
+                    this.entries.put(pair, new Entry(rate, this.clock.millis(), false));
+                    this.loads.remove(pair, load);
+                    load.complete(rate);
+                } catch (Throwable ex) {
+                    // the loaded rate is not served after expiry, until a reload succeeds
+                    Entry entry = this.entries.get(pair);
+                    if (entry != null) this.entries.replace(pair, entry, new Entry(entry.rate, entry.loaded, true));
+                    this.loads.remove(pair, load);
+                    load.completeExceptionally(ex);
+                }
+            });
+        } catch (RuntimeException ex) {
+            // the executor rejected the load
+            this.loads.remove(pair, load);
+            load.completeExceptionally(ex);
+        }
+        return load;
+    }
+    
+    /**
+     * A loaded rate with the time of loading, and whether a later reload of the rate failed
+     */
+    private static final class Entry {
+        
+        private final Rate rate;
+        private final long loaded;
+        private final boolean reloadFailed;
+        
+        private Entry(Rate rate, long loaded, boolean reloadFailed){
+            this.rate = rate;
+            this.loaded = loaded;
+            this.reloadFailed = reloadFailed;
+        }
+    }
+    
+    /**
+     * The builder of RateLoader
+     * 
+     * @author Iurii Mednikov
+     * @since 0.1
+     */
+    public static final class Builder {
+        
+        private final RateProvider provider;
+        private Executor executor;
+        private Clock clock = Clock.systemUTC();
+        private long ttl = Duration.ofMinutes(1).toMillis();
+        private long refreshAfter;
+        private long maxStale = -1;
+        
+        private Builder(RateProvider provider){
+            this.provider = provider;
+        }
+        
+        /**
+         * Sets the executor, which runs loads. The default is a new cached pool of daemon threads, 
+         * which is not shared with other loaders, as providers usually block on I/O
+         * @param executor executor
+         * @return this builder
+         */
+        public Builder executor(Executor executor){
+            this.executor = executor;
+            return this;
+        }
+        
+        /**
+         * Sets the time to live of rates. The default is 1 minute
+         * @param ttl positive duration
+         * @return this builder
+         */
+        public Builder ttl(Duration ttl){
+            if (ttl.isNegative() || ttl.isZero()) throw new IllegalArgumentException("Time to live should be positive");
+            this.ttl = ttl.toMillis();
+            return this;
+        }
+        
+        /**
+         * Enables the refresh ahead of expiry: a request of the rate, which is older than the duration, 
+         * starts a background load, and gets the current rate. By default, rates are loaded only after expiry
+         * @param refreshAfter positive duration, which is less than the time to live
+         * @return this builder
+         */
+        public Builder refreshAfter(Duration refreshAfter){
+            if (refreshAfter.isNegative() || refreshAfter.isZero()) throw new IllegalArgumentException("Refresh time should be positive");
+            this.refreshAfter = refreshAfter.toMillis();
+            return this;
+        }
+        
+        /**
+         * Sets how long after the time to live an expired rate can be served, while it is reloaded. 
+         * The default is the time to live, so a served rate is never older than two times to live
+         * @param maxStale duration, zero disables serving of expired rates
+         * @return this builder
+         */
+        public Builder maxStale(Duration maxStale){
+            if (maxStale.isNegative()) throw new IllegalArgumentException("Maximum staleness should not be negative");
+            this.maxStale = maxStale.toMillis();
+            return this;
+        }
+        
+        /**
+         * Sets the clock, used to expire rates. The default is the system UTC clock
+         * @param clock clock
+         * @return this builder
+         */
+        public Builder clock(Clock clock){
+            this.clock = clock;
+            return this;
+        }
+        
+        /**
+         * Creates a new loader
+         * @return new RateLoader instance
+         * @throws IllegalArgumentException if the refresh time is not less than the time to live
+         */
+        public RateLoader build(){
+            if (this.refreshAfter >= this.ttl) throw new IllegalArgumentException("Refresh time should be less than the time to live");
+            return new RateLoader(this);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+/**
+ * A source of exchange rates (e.g. a market data feed or a central bank service), used by RateCache.
+ * A provider returns only rates, which the source publishes; RateCache derives other rates by triangulation.
+ * Implementations should be thread safe.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public interface RateProvider {
+    
+    /**
+     * Returns the current rate from one currency to another
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @return the rate, or null if the source does not publish the pair
+     */
+    Rate getRate(Currency from, Currency to);
+}
@@ -0,0 +1,273 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The class represents an immutable versioned table of exchange rates. 
+ * 
+ * Rates are kept as fixed-point longs with 10 decimal digits in rows of a matrix, indexed by ordinals of 
+ * source and target currencies. An update creates a new snapshot, which copies only rows of updated 
+ * source currencies and shares other rows with this snapshot. So a snapshot can be pinned by a reader 
+ * (e.g. to convert a batch with same rates), while new rates are published. 
+ * Conversions are prepared once per pair of currencies and rounding mode, and are shared by snapshots 
+ * as long as rates of the source currency do not change.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class RateSnapshot {
+    
+    private static final RateSnapshot EMPTY = new RateSnapshot(0, new long[CurrencyRegistry.size()][], 
+            new Conversion[CurrencyRegistry.size()][]);
+    
+    private static final int MODES = RoundingMode.values().length;
+    
+    private final long version;
+    /**
+     * Fixed-point rates, rows[from][to]. 0 means an unknown rate, a null row means no rates from the currency
+     */
+    private final long[][] rows;
+    /**
+     * Prepared conversions, conversions[from][to * MODES + mode]. Rows are created on the first conversion 
+     * from the currency and are dropped, when rates of the currency are updated
+     */
+    private final Conversion[][] conversions;
+    
+    /**
+     * Private constructor. Instead, use static factory method empty() and with() methods
+     * 
+     * @param version
+     * @param rows
+     * @param conversions
+     */
+    private RateSnapshot(long version, long[][] rows, Conversion[][] conversions){
+        this.version = version;
+        this.rows = rows;
+        this.conversions = conversions;
+    }
+    
+    /**
+     * Returns the snapshot without rates, with the version 0
+     * 
+     * @return RateSnapshot instance
+     */
+    public static RateSnapshot empty(){
+        return EMPTY;
+    }
+    
+    /**
+     * Returns the version of the snapshot. Each update increments the version
+     * 
+     * @return version
+     */
+    public long getVersion(){
+        return this.version;
+    }
+    
+    /**
+     * Returns the exchange rate from one currency to another
+     * 
+     * @param from source currency
+     * @param to target currency
+     * @return Rate object, or null if the rate is unknown
+     */
+    public Rate getRate(Currency from, Currency to){
+        long rate = this.fixedPointRate(from, to);
+        return (rate == 0) ? null : Rate.ofFixedPoint(from, to, rate);
+    }
+    
+    /**
+     * Returns a new snapshot with the rate added or replaced
+     * 
+     * @param rate exchange rate
+     * @return new RateSnapshot instance with the next version
+     */
+    public RateSnapshot with(Rate rate){
+        return this.with(Collections.singleton(rate));
+    }
+    
+    /**
+     * Returns a new snapshot with rates added or replaced. Only rows of source currencies of rates are copied
+     * 
+     * @param rates exchange rates
+     * @return new RateSnapshot instance with the next version
+     */
+    public RateSnapshot with(Collection<Rate> rates){
+        long[][] copy = this.rows.clone();
+        Conversion[][] conversions = this.conversions.clone();
+        boolean[] copied = new boolean[copy.length];
+        for (Rate rate : rates) {
+            int from = rate.getFrom().getOrdinal();
+            if (!copied[from]) {
+                copy[from] = (copy[from] == null) ? new long[copy.length] : copy[from].clone();
+                conversions[from] = null;
+                copied[from] = true;
+            }
+            copy[from][rate.getTo().getOrdinal()] = rate.getFixedPointValue();
+        }
+        return new RateSnapshot(this.version + 1, copy, conversions);
+    }
+    
+    /**
+     * Converts the value to the target currency. The result is rounded to minor units of the target currency
+     * 
+     * @param money value to convert
+     * @param to target currency
+     * @param mode rounding mode
+     * @return a new Money object in the target currency
+     * @throws UnknownRateException if the exchange rate is unknown
+     * @throws ArithmeticException if the mode is UNNECESSARY and the result needs rounding
+     */
+    public Money convert(Money money, Currency to, RoundingMode mode) throws UnknownRateException {
+        return this.conversion(money.getCurrency(), to, mode).convert(money);
+    }
+    
+    /**
+     * Converts amounts in minor units from one currency to another with one rate lookup. 
+     * Results are rounded to minor units of the target currency. The source and target arrays can be the same array
+     * 
+     * @param source amounts in minor units of the source currency
+     * @param from source currency
+     * @param target array for amounts in minor units of the target currency, not shorter than the source array
+     * @param to target currency
+     * @param mode rounding mode
+     * @throws UnknownRateException if the exchange rate is unknown
+     * @throws IllegalArgumentException if the target array is shorter than the source array
+     * @throws ArithmeticException if a result does not fit into a long, or the mode is UNNECESSARY 
+     * and a result needs rounding. The target array can be partially written in this case
+     */
+    public void convert(long[] source, Currency from, long[] target, Currency to, RoundingMode mode) throws UnknownRateException {
+        checkLength(source, target);
+        this.conversion(from, to, mode).convert(source, target, 0, source.length);
+    }
+    
+    /**
+     * Converts amounts in minor units from one currency to another in the common fork join pool. 
+     * Use it for very large arrays, otherwise this method works as convert()
+     * 
+     * @param source amounts in minor units of the source currency
+     * @param from source currency
+     * @param target array for amounts in minor units of the target currency, not shorter than the source array
+     * @param to target currency
+     * @param mode rounding mode
+     * @throws UnknownRateException if the exchange rate is unknown
+     * @throws IllegalArgumentException if the target array is shorter than the source array
+     * @throws ArithmeticException if a result does not fit into a long, or the mode is UNNECESSARY 
+     * and a result needs rounding. The target array can be partially written in this case
+     */
+    public void convertParallel(long[] source, Currency from, long[] target, Currency to, RoundingMode mode) throws UnknownRateException {
+        checkLength(source, target);
+        ConversionTask task = new ConversionTask(this.conversion(from, to, mode), source, target, 0, source.length);
+        if (source.length <= MoneyAggregates.THRESHOLD) {
+            task.compute();
+        } else {
+            task.invoke();
+        }
+    }
+    
+    /**
+     * Converts all elements of the vector to the target currency. Rates are looked up once per currency
+     * 
+     * @param values vector of values
+     * @param to target currency
+     * @param mode rounding mode
+     * @return new single currency MoneyVector instance
+     * @throws UnknownRateException if an exchange rate is unknown
+     * @throws ArithmeticException if a result does not fit into a long, or the mode is UNNECESSARY 
+     * and a result needs rounding
+     */
+    public MoneyVector convert(MoneyVector values, Currency to, RoundingMode mode) throws UnknownRateException {
+        return values.convert(this, to, mode);
+    }
+    
+    /**
+     * Returns the conversion with the rate from this snapshot. Conversions are created once and cached
+     * @throws UnknownRateException if the rate is unknown
+     */
+    Conversion conversion(Currency from, Currency to, RoundingMode mode) throws UnknownRateException {
+        Conversion[] row = this.conversions[from.getOrdinal()];
+        int index = to.getOrdinal() * MODES + mode.ordinal();
+        if (row != null) {
+            Conversion cached = row[index];
+            if (cached != null) return cached;
+        }
+        long rate = this.fixedPointRate(from, to);
+        if (rate == 0) throw new UnknownRateException(from, to);
+        if (row == null) {
+            // a race is harmless: it only loses conversions, cached in the other row
+            row = new Conversion[this.conversions.length * MODES];
+            this.conversions[from.getOrdinal()] = row;
+        }
+        // a race is harmless: conversions are immutable and equal
+        Conversion result = new Conversion(from, to, rate, mode);
+        row[index] = result;
+        return result;
+    }
+    
+    /**
+     * Returns the fixed-point rate, or 0 if the rate is unknown. The rate between the same currency is 1
+     */
+    long fixedPointRate(Currency from, Currency to){
+        if (from == to) return Rate.ONE;
+        long[] row = this.rows[from.getOrdinal()];
+        return (row == null) ? 0 : row[to.getOrdinal()];
+    }
+    
+    private static void checkLength(long[] source, long[] target){
+        if (target.length < source.length) throw new IllegalArgumentException("Target array is shorter than source array");
+    }
+    
+    /**
+     * Converts a range of an array, splitting it in halves, until ranges are small enough
+     */
+    private static final class ConversionTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 1L;
+        
+        private final Conversion conversion;
+        private final long[] source;
+        private final long[] target;
+        private final int from;
+        private final int to;
+        
+        private ConversionTask(Conversion conversion, long[] source, long[] target, int from, int to){
+            this.conversion = conversion;
+            this.source = source;
+            this.target = target;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute(){
+            if (this.to - this.from > MoneyAggregates.THRESHOLD){
+                int middle = (this.from + this.to) >>> 1;
+                ConversionTask left = new ConversionTask(this.conversion, this.source, this.target, this.from, middle);
+                left.fork();
+                new ConversionTask(this.conversion, this.source, this.target, middle, this.to).compute();
+                left.join();
+            } else {
+                this.conversion.convert(this.source, this.target, this.from, this.to);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.RoundingMode;
+
+/**
+ * Long division with a RoundingMode, which gives the same results as BigDecimal.divide(), 
+ * but does not create objects
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class Rounding {
+    
+    private Rounding(){
+    }
+    
+    /**
+     * Divides two longs and rounds the quotient to an integer
+     * @param dividend dividend
+     * @param divisor positive divisor, less than 2^62
+     * @param mode rounding mode
+     * @return rounded quotient
+     * @throws ArithmeticException if the mode is UNNECESSARY and the quotient is not an integer
+     */
+    static long divide(long dividend, long divisor, RoundingMode mode){
+        long quotient = dividend / divisor;
+        long remainder = dividend % divisor;
+        if (remainder == 0) return quotient;
+        // the remainder has the sign of the dividend, the quotient was truncated towards zero
+        int sign = (dividend < 0) ? -1 : 1;
+        boolean awayFromZero;
+        switch (mode){
+            case UP:
+                awayFromZero = true;
+                break;
+            case DOWN:
+                awayFromZero = false;
+                break;
+            case CEILING:
+                awayFromZero = sign > 0;
+                break;
+            case FLOOR:
+                awayFromZero = sign < 0;
+                break;
+            case HALF_UP:
+            case HALF_DOWN:
+            case HALF_EVEN:
+                int half = Long.compare(Math.abs(remainder) * 2, divisor);
+                if (half != 0){
+                    awayFromZero = half > 0;
+                } else if (mode == RoundingMode.HALF_EVEN){
+                    awayFromZero = (quotient & 1) != 0;
+                } else {
+                    awayFromZero = mode == RoundingMode.HALF_UP;
+                }
+                break;
+            default:
+                throw new ArithmeticException("Rounding necessary");
+        }
+        return awayFromZero ? quotient + sign : quotient;
+    }
+}
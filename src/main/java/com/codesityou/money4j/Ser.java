@@ -0,0 +1,105 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.io.StreamCorruptedException;
+
+/**
+ * The serialization proxy of Money and Currency classes. Instead of object fields, 
+ * the proxy writes a type byte, followed by:
+ * - Currency: three letter currency code
+ * - Money: the value in the MoneyCodec.FIXED form (numeric currency code and a long in minor units)
+ * Deserialized objects use canonical Currency instances.
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class Ser implements Externalizable {
+    
+    private static final long serialVersionUID = 1L;
+    
+    static final byte CURRENCY_TYPE = 1;
+    static final byte MONEY_TYPE = 2;
+    
+    private byte type;
+    private Object object;
+    
+    /**
+     * Public constructor, required by Externalizable. Should not be used directly
+     */
+    public Ser(){
+    }
+    
+    /**
+     * Creates a proxy of the object
+     * @param type CURRENCY_TYPE or MONEY_TYPE
+     * @param object Currency or Money object
+     */
+    Ser(byte type, Object object){
+        this.type = type;
+        this.object = object;
+    }
+    
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeByte(this.type);
+        switch (this.type){
+            case CURRENCY_TYPE:
+                out.writeUTF(((Currency) this.object).getCode());
+                break;
+            case MONEY_TYPE:
+                MoneyCodec.FIXED.encode((Money) this.object, out);
+                break;
+            default:
+                throw new InvalidObjectException("Unknown serialized type: " + this.type);
+        }
+    }
+    
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        this.type = in.readByte();
+        try {
+            switch (this.type){
+                case CURRENCY_TYPE:
+                    this.object = Currency.of(in.readUTF());
+                    break;
+                case MONEY_TYPE:
+                    this.object = MoneyCodec.FIXED.decode(in);
+                    break;
+                default:
+                    throw new StreamCorruptedException("Unknown serialized type: " + this.type);
+            }
+        } catch (UnknownCurrencyException ex){
+            InvalidObjectException ioe = new InvalidObjectException(ex.getMessage());
+            ioe.initCause(ex);
+            throw ioe;
+        }
+    }
+    
+    /**
+     * Returns the deserialized object
+     * @return Currency or Money object
+     */
+    private Object readResolve(){
+        return this.object;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+/**
+ * Holds the option, which controls stack traces of exceptions of the library. 
+ * Run with -Dmoney4j.stackTraces=false to create exceptions without filling stack traces, 
+ * e.g. when invalid input is common and exceptions are used to reject it
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+final class StackTraces {
+    
+    /**
+     * true, if exceptions of the library fill in stack traces (the default)
+     */
+    static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("money4j.stackTraces", "true"));
+    
+    private StackTraces(){
+    }
+}
@@ -24,8 +24,26 @@ package com.codesityou.money4j;
  */
 public final class UnknownCurrencyException extends IllegalArgumentException {
     
+    private final String code;
+    
     UnknownCurrencyException(String code) {
-        super("Currency with code " + code + " is unknown for Money4j. "
-                + "Please check the list of available currencies.");
+        this.code = code;
+    }
+    
+    /**
+     * Returns the message, which is built on demand, not when the exception is thrown
+     */
+    @Override
+    public String getMessage() {
+        return "Currency with code " + this.code + " is unknown for Money4j. "
+                + "Please check the list of available currencies.";
+    }
+    
+    /**
+     * Fills in the stack trace, unless stack traces are disabled with -Dmoney4j.stackTraces=false
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.ENABLED ? super.fillInStackTrace() : this;
     }
 }
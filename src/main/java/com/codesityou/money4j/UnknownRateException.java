@@ -0,0 +1,53 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+/**
+ * An exception, which is thrown by the CurrencyConverter,
+ * if the exchange rate between two currencies is not available
+ * 
+ * @author Iurii Mednikov
+ * @since 0.1
+ */
+public final class UnknownRateException extends IllegalArgumentException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private final Currency from;
+    private final Currency to;
+    
+    UnknownRateException(Currency from, Currency to) {
+        this.from = from;
+        this.to = to;
+    }
+    
+    /**
+     * Returns the message, which is built on demand, not when the exception is thrown
+     */
+    @Override
+    public String getMessage() {
+        return "Exchange rate " + this.from.getCode() + "/" + this.to.getCode() + " is unknown for Money4j.";
+    }
+    
+    /**
+     * Fills in the stack trace, unless stack traces are disabled with -Dmoney4j.stackTraces=false
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return StackTraces.ENABLED ? super.fillInStackTrace() : this;
+    }
+}
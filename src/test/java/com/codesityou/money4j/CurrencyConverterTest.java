@@ -0,0 +1,216 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class CurrencyConverterTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+    private final static Currency jpy = Currency.of("JPY");
+    private final static Currency kwd = Currency.of("KWD");
+
+    @Test
+    void convert_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, usd, new BigDecimal("1.0854"));
+        Money result = converter.convert(Money.of(100, eur), usd, RoundingMode.HALF_EVEN);
+        Assertions.assertThat(result).isEqualTo(Money.of(108.54, usd));
+        Assertions.assertThat(converter.convert(Money.of(100, eur), eur, RoundingMode.UNNECESSARY))
+                .isEqualTo(Money.of(100, eur));
+    }
+
+    @Test
+    void convert_differentDecimalParts_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, jpy, new BigDecimal("162.4571"));
+        converter.setRate(jpy, kwd, new BigDecimal("0.0020571"));
+        Assertions.assertThat(converter.convert(Money.of(10.99, eur), jpy, RoundingMode.HALF_UP))
+                .isEqualTo(Money.of(1785, jpy));
+        Assertions.assertThat(converter.convert(Money.of(10.99, eur), jpy, RoundingMode.DOWN))
+                .isEqualTo(Money.of(1785, jpy));
+        Assertions.assertThat(converter.convert(Money.of(10.99, eur), jpy, RoundingMode.UP))
+                .isEqualTo(Money.of(1786, jpy));
+        Assertions.assertThat(converter.convert(Money.of(1000, jpy), kwd, RoundingMode.HALF_EVEN))
+                .isEqualTo(Money.of(2.057, kwd));
+    }
+
+    @Test
+    void convert_outOfLongRange_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, jpy, new BigDecimal("162.5"));
+        Money money = Money.ofMinor(Long.MAX_VALUE, eur);
+        BigDecimal expected = money.toBigDecimal().multiply(new BigDecimal("162.5")).setScale(0, RoundingMode.HALF_EVEN);
+        Assertions.assertThat(converter.convert(money, jpy, RoundingMode.HALF_EVEN).toBigDecimal())
+                .isEqualByComparingTo(expected);
+    }
+
+    @Test
+    void convert_unknownRate_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, usd, new BigDecimal("1.0854"));
+        Assertions.assertThat(converter.getRate(usd, eur)).isNull();
+        Assertions.assertThatCode(() -> converter.convert(Money.of(1, usd), eur, RoundingMode.HALF_EVEN))
+                .isInstanceOf(UnknownRateException.class);
+    }
+
+    @Test
+    void setRate_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, usd, new BigDecimal("1.08540000004"));
+        Assertions.assertThat(converter.getRate(eur, usd)).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThatCode(() -> converter.setRate(eur, usd, BigDecimal.ZERO))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatCode(() -> converter.setRate(eur, usd, new BigDecimal("-1")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void snapshot_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, usd, new BigDecimal("1.0854"));
+        RateSnapshot pinned = converter.getSnapshot();
+        converter.setRates(Arrays.asList(Rate.of(eur, usd, new BigDecimal("1.1")), Rate.of(eur, jpy, new BigDecimal("162"))));
+        Assertions.assertThat(converter.getSnapshot().getVersion()).isEqualTo(pinned.getVersion() + 1);
+        Assertions.assertThat(pinned.convert(Money.of(100, eur), usd, RoundingMode.HALF_EVEN)).isEqualTo(Money.of(108.54, usd));
+        Assertions.assertThat(pinned.getRate(eur, jpy)).isNull();
+        Assertions.assertThat(converter.convert(Money.of(100, eur), usd, RoundingMode.HALF_EVEN)).isEqualTo(Money.of(110, usd));
+        Assertions.assertThat(converter.getSnapshot().getRate(eur, jpy)).isEqualTo(Rate.of(eur, jpy, new BigDecimal("162")));
+        Assertions.assertThat(RateSnapshot.empty().getRate(eur, usd)).isNull();
+    }
+
+    @Test
+    void snapshot_cachesConversions_test(){
+        RateSnapshot first = RateSnapshot.empty().with(Arrays.asList(Rate.of(eur, usd, new BigDecimal("1.0854")), 
+                Rate.of(jpy, usd, new BigDecimal("0.0067"))));
+        Conversion conversion = first.conversion(eur, usd, RoundingMode.HALF_EVEN);
+        Assertions.assertThat(first.conversion(eur, usd, RoundingMode.HALF_EVEN)).isSameAs(conversion);
+        Assertions.assertThat(first.conversion(eur, usd, RoundingMode.HALF_UP)).isNotSameAs(conversion);
+        Conversion other = first.conversion(jpy, usd, RoundingMode.HALF_EVEN);
+        RateSnapshot second = first.with(Rate.of(eur, usd, new BigDecimal("1.1")));
+        Assertions.assertThat(second.conversion(jpy, usd, RoundingMode.HALF_EVEN)).isSameAs(other);
+        Assertions.assertThat(second.conversion(eur, usd, RoundingMode.HALF_EVEN)).isNotSameAs(conversion);
+        Assertions.assertThat(second.convert(Money.of(100, eur), usd, RoundingMode.HALF_EVEN)).isEqualTo(Money.of(110, usd));
+        Assertions.assertThat(first.convert(Money.of(100, eur), usd, RoundingMode.HALF_EVEN)).isEqualTo(Money.of(108.54, usd));
+        Assertions.assertThatCode(() -> second.conversion(usd, eur, RoundingMode.HALF_EVEN))
+                .isInstanceOf(UnknownRateException.class);
+    }
+
+    @Test
+    void snapshot_concurrentUpdates_test() throws Exception {
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRates(Arrays.asList(Rate.of(eur, usd, BigDecimal.ONE), Rate.of(usd, eur, BigDecimal.ONE)));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> writer = executor.submit(() -> {
+                for (int i = 2; i <= 10_000; i++) {
+                    BigDecimal rate = BigDecimal.valueOf(i);
+                    converter.setRates(Arrays.asList(Rate.of(eur, usd, rate), Rate.of(usd, eur, rate)));
+                }
+            });
+            Future<Boolean> reader = executor.submit(() -> {
+                boolean consistent = true;
+                while (!writer.isDone()) {
+                    RateSnapshot snapshot = converter.getSnapshot();
+                    consistent &= snapshot.getRate(eur, usd).getFixedPointValue() == snapshot.getRate(usd, eur).getFixedPointValue();
+                }
+                return consistent;
+            });
+            writer.get();
+            Assertions.assertThat(reader.get()).isTrue();
+            Assertions.assertThat(converter.getSnapshot().getVersion()).isEqualTo(10_000L);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void convert_array_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, jpy, new BigDecimal("162.4571"));
+        Random random = new Random(42);
+        long[] source = new long[100_000];
+        for (int i = 0; i < source.length; i++) {
+            source[i] = (i % 10 == 0) ? random.nextLong() / 1000 : random.nextInt();
+        }
+        long[] target = new long[source.length];
+        long[] parallel = new long[source.length];
+        converter.convert(source, eur, target, jpy, RoundingMode.HALF_EVEN);
+        converter.convertParallel(source, eur, parallel, jpy, RoundingMode.HALF_EVEN);
+        for (int i = 0; i < source.length; i++) {
+            long expected = converter.convert(Money.ofMinor(source[i], eur), jpy, RoundingMode.HALF_EVEN).toMinorUnits();
+            Assertions.assertThat(target[i]).isEqualTo(expected);
+            Assertions.assertThat(parallel[i]).isEqualTo(expected);
+        }
+        converter.convert(source, eur, source, jpy, RoundingMode.HALF_EVEN);
+        Assertions.assertThat(source).isEqualTo(target);
+    }
+
+    @Test
+    void convert_arrayErrors_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, jpy, new BigDecimal("162.5"));
+        Assertions.assertThatCode(() -> converter.convert(new long[]{Long.MAX_VALUE}, eur, new long[1], jpy, RoundingMode.HALF_EVEN))
+                .isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatCode(() -> converter.convert(new long[2], eur, new long[1], jpy, RoundingMode.HALF_EVEN))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatCode(() -> converter.convert(new long[1], jpy, new long[1], eur, RoundingMode.HALF_EVEN))
+                .isInstanceOf(UnknownRateException.class);
+    }
+
+    @Test
+    void convert_vector_test(){
+        CurrencyConverter converter = CurrencyConverter.create();
+        converter.setRate(eur, usd, new BigDecimal("1.0854"));
+        converter.setRate(jpy, usd, new BigDecimal("0.0067"));
+        MoneyVector single = MoneyVector.of(eur).append(Money.of(100, eur)).append(Money.of(0.01, eur));
+        MoneyVector result = converter.convert(single, usd, RoundingMode.HALF_EVEN);
+        Assertions.assertThat(result.isMixed()).isFalse();
+        Assertions.assertThat(result.get(0)).isEqualTo(Money.of(108.54, usd));
+        Assertions.assertThat(result.get(1)).isEqualTo(Money.of(0.01, usd));
+        MoneyVector mixed = MoneyVector.mixed().append(Money.of(100, eur)).append(Money.of(1000, jpy)).append(Money.of(1, usd));
+        result = converter.convert(mixed, usd, RoundingMode.HALF_EVEN);
+        Assertions.assertThat(result.get(0)).isEqualTo(Money.of(108.54, usd));
+        Assertions.assertThat(result.get(1)).isEqualTo(Money.of(6.7, usd));
+        Assertions.assertThat(result.get(2)).isEqualTo(Money.of(1, usd));
+        Assertions.assertThatCode(() -> converter.convert(mixed, eur, RoundingMode.HALF_EVEN))
+                .isInstanceOf(UnknownRateException.class);
+    }
+
+    @Test
+    void conversion_largeFactorRatio_test(){
+        Currency wei = Currency.create("ETH", 0, 18, Locale.ROOT, 0);
+        Conversion conversion = new Conversion(wei, jpy, Rate.ONE * 2, RoundingMode.HALF_UP);
+        Assertions.assertThat(conversion.convert(1_500_000_000_000_000_000L)).isEqualTo(3L);
+        Assertions.assertThat(conversion.convert(1_249_999_999_999_999_999L)).isEqualTo(2L);
+        long[] amounts = {250_000_000_000_000_000L, -250_000_000_000_000_000L};
+        conversion.convert(amounts, amounts, 0, amounts.length);
+        Assertions.assertThat(amounts).containsExactly(1L, -1L);
+        Conversion back = new Conversion(jpy, wei, Rate.ONE / 2, RoundingMode.UNNECESSARY);
+        Assertions.assertThat(back.convert(3L)).isEqualTo(1_500_000_000_000_000_000L);
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.util.Locale;
+import java.util.Optional;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class CurrencyTest {
+
+    @Test
+    void of_returnsCanonicalInstance_test(){
+        Currency c1 = Currency.of("EUR");
+        Currency c2 = Currency.of("EUR");
+        Assertions.assertThat(c1).isSameAs(c2);
+        Assertions.assertThat(c1.hashCode()).isEqualTo(c2.hashCode());
+        Assertions.assertThat(c1).isNotEqualTo(Currency.of("USD"));
+    }
+
+    @Test
+    void of_unknownCurrency_test(){
+        Assertions.assertThatCode(() -> Currency.of("XYZ"))
+                .isInstanceOf(UnknownCurrencyException.class);
+        Assertions.assertThatCode(() -> Currency.of("eur"))
+                .isInstanceOf(UnknownCurrencyException.class);
+        Assertions.assertThatCode(() -> Currency.of("EURO"))
+                .isInstanceOf(UnknownCurrencyException.class);
+    }
+
+    @Test
+    void find_test(){
+        Assertions.assertThat(Currency.find("EUR")).isEqualTo(Optional.of(Currency.of("EUR")));
+        Assertions.assertThat(Currency.find("XYZ")).isEqualTo(Optional.empty());
+        Assertions.assertThat(Currency.find("EURO")).isEqualTo(Optional.empty());
+        Assertions.assertThat(Currency.findNumeric(978)).isEqualTo(Optional.of(Currency.of("EUR")));
+        Assertions.assertThat(Currency.findNumeric(-1)).isEqualTo(Optional.empty());
+    }
+
+    @Test
+    void unknownCurrencyException_test(){
+        Assertions.assertThatCode(() -> Currency.of("XYZ"))
+                .hasMessageContaining("Currency with code XYZ is unknown");
+        Assertions.assertThat(new UnknownCurrencyException("XYZ").getStackTrace().length).isPositive();
+    }
+
+    @Test
+    void of_decimalParts_test(){
+        Assertions.assertThat(Currency.of("JPY").getDecimalParts()).isZero();
+        Assertions.assertThat(Currency.of("KRW").getFactor()).isEqualTo(1);
+        Assertions.assertThat(Currency.of("BHD").getDecimalParts()).isEqualTo(3);
+        Assertions.assertThat(Currency.of("KWD").getFactor()).isEqualTo(1000);
+        Assertions.assertThat(Currency.of("CHF").getDecimalParts()).isEqualTo(2);
+    }
+
+    @Test
+    void create_decimalPartsRange_test(){
+        Currency wei = Currency.create("ETH", 0, 18, Locale.ROOT, 0);
+        Assertions.assertThat(wei.getFactor()).isEqualTo(1_000_000_000_000_000_000L);
+        Money balance = Money.of(new BigDecimal("123456.000000000000000001"), wei);
+        Assertions.assertThat(balance.isCompact()).isFalse();
+        Assertions.assertThat(balance.toBigDecimal()).isEqualByComparingTo(new BigDecimal("123456.000000000000000001"));
+        Assertions.assertThatCode(() -> Currency.create("XXX", 0, 19, Locale.ROOT, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("the maximum is 18");
+    }
+
+    @Test
+    void ofNumeric_test(){
+        Assertions.assertThat(Currency.ofNumeric(978)).isSameAs(Currency.of("EUR"));
+        Assertions.assertThat(Currency.ofNumeric(840)).isSameAs(Currency.of("USD"));
+        Assertions.assertThat(Currency.ofNumeric(8).getCode()).isEqualTo("ALL");
+        Assertions.assertThat(Currency.of("JPY").getNumericCode()).isEqualTo(392);
+        Assertions.assertThatCode(() -> Currency.ofNumeric(0))
+                .isInstanceOf(UnknownCurrencyException.class);
+        Assertions.assertThatCode(() -> Currency.ofNumeric(1000))
+                .isInstanceOf(UnknownCurrencyException.class);
+    }
+
+    @Test
+    void deserialization_keepsCanonicalInstance_test() throws Exception {
+        Currency currency = Currency.of("GBP");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(currency);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))){
+            Assertions.assertThat(in.readObject()).isSameAs(currency);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyAccumulatorTest {
+
+    private final static Currency eur = Currency.of("EUR");
+
+    @Test
+    void add_test(){
+        MoneyAccumulator accumulator = MoneyAccumulator.of(eur);
+        accumulator.add(Money.of(10.50, eur));
+        accumulator.add(250);
+        Assertions.assertThat(accumulator.sum()).isEqualTo(Money.of(13, eur));
+        Assertions.assertThatCode(() -> accumulator.add(Money.of(1, Currency.of("USD"))))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+    }
+
+    @Test
+    void add_overflowsLongRange_test(){
+        MoneyAccumulator accumulator = MoneyAccumulator.of(eur);
+        accumulator.add(Long.MAX_VALUE);
+        accumulator.add(Long.MAX_VALUE);
+        accumulator.add(Money.ofMinor(Long.MAX_VALUE, eur).multiply(2));
+        Assertions.assertThat(accumulator.sum()).isEqualTo(Money.ofMinor(Long.MAX_VALUE, eur).multiply(4));
+    }
+
+    @Test
+    void add_concurrent_test() throws Exception {
+        MoneyAccumulator accumulator = MoneyAccumulator.of(eur);
+        int threads = 8;
+        int updates = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++){
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < updates; i++){
+                        accumulator.add(Long.MAX_VALUE / 1000);
+                    }
+                }));
+            }
+            for (Future<?> future : futures){
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Money expected = Money.ofMinor(Long.MAX_VALUE / 1000, eur).multiply((long) threads * updates);
+        Assertions.assertThat(accumulator.sum()).isEqualTo(expected);
+    }
+
+    @Test
+    void sum_includesSpilledValues_test() throws Exception {
+        MoneyAccumulator accumulator = MoneyAccumulator.of(eur);
+        int threads = 4;
+        int updates = 100_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++){
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < updates; i++){
+                        accumulator.add(Long.MAX_VALUE / 3);
+                    }
+                }));
+            }
+            // all values are positive, so a sum, which misses a spilled value, would be less than the previous one
+            Money previous = accumulator.sum();
+            while (futures.stream().anyMatch(future -> future.isDone() == false)){
+                Money current = accumulator.sum();
+                Assertions.assertThat(current.isLessThan(previous)).isFalse();
+                previous = current;
+            }
+            for (Future<?> future : futures){
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        Money expected = Money.ofMinor(Long.MAX_VALUE / 3, eur).multiply((long) threads * updates);
+        Assertions.assertThat(accumulator.sum()).isEqualTo(expected);
+    }
+
+    @Test
+    void sumThenReset_test(){
+        MoneyAccumulator accumulator = MoneyAccumulator.of(eur);
+        accumulator.add(Long.MAX_VALUE);
+        accumulator.add(100);
+        Assertions.assertThat(accumulator.sumThenReset()).isEqualTo(Money.ofMinor(Long.MAX_VALUE, eur).plus(Money.ofMinor(100, eur)));
+        Assertions.assertThat(accumulator.sum()).isEqualTo(Money.zero(eur));
+        accumulator.add(5);
+        Assertions.assertThat(accumulator.sumThenReset()).isEqualTo(Money.ofMinor(5, eur));
+    }
+}
@@ -0,0 +1,83 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyAggregatesTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+
+    @Test
+    void sum_test(){
+        int size = MoneyAggregates.THRESHOLD * 10 + 7;
+        Money[] values = new Money[size];
+        for (int i = 0; i < size; i++){
+            values[i] = Money.ofMinor(i, eur);
+        }
+        long expected = (long) size * (size - 1) / 2;
+        Assertions.assertThat(MoneyAggregates.sum(values, eur)).isEqualTo(Money.ofMinor(expected, eur));
+        Assertions.assertThat(MoneyAggregates.sum(new LinkedList<>(Arrays.asList(values)), eur))
+                .isEqualTo(Money.ofMinor(expected, eur));
+        Assertions.assertThat(MoneyAggregates.sum(new Money[0], eur)).isEqualTo(Money.zero(eur));
+    }
+
+    @Test
+    void sum_overflowsLongRange_test(){
+        List<Money> values = new ArrayList<>();
+        for (int i = 0; i < MoneyAggregates.THRESHOLD * 4; i++){
+            values.add(Money.ofMinor(Long.MAX_VALUE, eur));
+        }
+        values.add(Money.ofMinor(Long.MAX_VALUE, eur).multiply(2));
+        BigInteger expected = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(values.size() + 1));
+        Money result = MoneyAggregates.sum(values, eur);
+        Assertions.assertThat(result.toBigDecimal()).isEqualByComparingTo(new BigDecimal(expected, 2));
+    }
+
+    @Test
+    void sum_differentCurrencies_test(){
+        List<Money> values = new ArrayList<>();
+        for (int i = 0; i < MoneyAggregates.THRESHOLD * 3; i++){
+            values.add(Money.ofMinor(i, eur));
+        }
+        values.add(Money.ofMinor(1, usd));
+        Assertions.assertThatCode(() -> MoneyAggregates.sum(values, eur))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+    }
+
+    @Test
+    void sumByCurrency_test(){
+        List<Money> values = new ArrayList<>();
+        for (int i = 0; i < MoneyAggregates.THRESHOLD * 3; i++){
+            values.add(Money.ofMinor(2, (i % 3 == 0) ? usd : eur));
+        }
+        Map<Currency, Money> result = MoneyAggregates.sumByCurrency(values);
+        Assertions.assertThat(result).hasSize(2);
+        Assertions.assertThat(result).containsEntry(usd, Money.ofMinor(MoneyAggregates.THRESHOLD * 2, usd));
+        Assertions.assertThat(result).containsEntry(eur, Money.ofMinor(MoneyAggregates.THRESHOLD * 4, eur));
+        Assertions.assertThat(MoneyAggregates.sumByCurrency(new Money[0])).isEmpty();
+    }
+}
@@ -17,6 +17,7 @@
 package com.codesityou.money4j;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import org.assertj.core.api.Assertions;
 import org.testng.annotations.Test;
 
@@ -49,6 +50,17 @@ class MoneyArithmeticsTest {
                 .isInstanceOf(CurrenciesDontMatchException.class);
     }
     
+    @Test
+    void tryPlusAndTryMinus_test(){
+        Currency usd = Currency.of("USD");
+        Money m1 = Money.of(100, currency);
+        Money m2 = Money.of(0.5, currency);
+        Assertions.assertThat(m1.tryPlus(m2)).isEqualTo(Money.of(100.5, currency));
+        Assertions.assertThat(m1.tryMinus(m2)).isEqualTo(Money.of(99.5, currency));
+        Assertions.assertThat(m1.tryPlus(Money.of(1, usd))).isNull();
+        Assertions.assertThat(m1.tryMinus(Money.of(1, usd))).isNull();
+    }
+    
     @Test
     void minus_subtractTwoEntitiesWithDecimal_test(){
         Money m1 = Money.of(5000.39, currency);
@@ -98,4 +110,92 @@ class MoneyArithmeticsTest {
         Money result = m.divide(factor);
         Assertions.assertThat(result.toBigDecimal()).isEqualByComparingTo(new BigDecimal("12.50"));
     }
+
+    @Test
+    void plus_overflowsLongRange_test(){
+        Money m1 = Money.ofMinor(Long.MAX_VALUE, currency);
+        Money m2 = Money.ofMinor(1, currency);
+        Money result = m1.plus(m2);
+        Assertions.assertThat(result.toBigDecimal()).isEqualByComparingTo(new BigDecimal("92233720368547758.08"));
+        Assertions.assertThatCode(() -> result.toMinorUnits()).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThat(result.minus(m2)).isEqualTo(m1);
+        Assertions.assertThat(result.minus(m2).toMinorUnits()).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    void multiply_overflowsLongRange_test(){
+        Money m = Money.ofMinor(Long.MIN_VALUE, currency);
+        Money result = m.multiply(-1);
+        Assertions.assertThat(result.isNegative()).isFalse();
+        Assertions.assertThat(result.divide(-1)).isEqualTo(m);
+        Assertions.assertThat(m.divide(-1)).isEqualTo(result);
+    }
+
+    @Test
+    void toBigDecimal_scale_test(){
+        Assertions.assertThat(Money.ofMinor(1050, currency).toBigDecimal()).isEqualTo(new BigDecimal("10.5"));
+        Assertions.assertThat(Money.ofMinor(1099, currency).toBigDecimal()).isEqualTo(new BigDecimal("10.99"));
+        Assertions.assertThat(Money.ofMinor(1000, currency).toBigDecimal()).isEqualTo(new BigDecimal("10"));
+        Assertions.assertThat(Money.zero(currency).toBigDecimal()).isEqualTo(BigDecimal.ZERO);
+        Money wide = Money.ofMinor(Long.MAX_VALUE, currency).multiply(100);
+        Assertions.assertThat(wide.toBigDecimal()).isEqualTo(new BigDecimal("9223372036854775807"));
+    }
+
+    @Test
+    void ofMinor_test(){
+        Money m = Money.ofMinor(12050, currency);
+        Assertions.assertThat(m.toBigDecimal()).isEqualByComparingTo(new BigDecimal("120.50"));
+        Assertions.assertThat(m.toMinorUnits()).isEqualTo(12050L);
+        Assertions.assertThat(Money.of(120.50, currency)).isEqualTo(m);
+    }
+    
+    @Test
+    void smallValuesCache_test(){
+        Currency usd = Currency.of("USD");
+        Assertions.assertThat(Money.zero(currency)).isSameAs(Money.zero(currency));
+        Assertions.assertThat(Money.zero(currency)).isNotSameAs(Money.zero(usd));
+        Assertions.assertThat(Money.of(10, currency)).isSameAs(Money.ofMinor(1000, currency));
+        Assertions.assertThat(Money.of(5, currency).plus(Money.of(5, currency))).isSameAs(Money.of(10, currency));
+        Assertions.assertThat(Money.of(1, currency).minus(Money.of(1, currency))).isSameAs(Money.zero(currency));
+        Assertions.assertThat(Money.ofMinor(-128, currency)).isSameAs(Money.ofMinor(-128, currency));
+        Assertions.assertThat(Money.ofMinor(1001, currency)).isNotSameAs(Money.ofMinor(1001, currency));
+        Assertions.assertThat(Money.ofMinor(1001, currency)).isEqualTo(Money.ofMinor(1001, currency));
+        Assertions.assertThat(Money.ofMinor(-129, currency)).isNotSameAs(Money.ofMinor(-129, currency));
+    }
+    
+    @Test
+    void arithmetics_128BitRange_test(){
+        Money max = Money.ofMinor(Long.MAX_VALUE, currency);
+        Money big = max.multiply(Long.MAX_VALUE);
+        Assertions.assertThat(big.toBigDecimal()).isEqualByComparingTo(new BigDecimal("850705917302346158473969077842325012.49"));
+        Assertions.assertThat(big.plus(big).minus(big)).isEqualTo(big);
+        Assertions.assertThat(big.divide(Long.MAX_VALUE)).isEqualTo(max);
+        Assertions.assertThat(big.divide(Long.MAX_VALUE).toMinorUnits()).isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThat(big.minus(big)).isSameAs(Money.zero(currency));
+        Assertions.assertThat(big.multiply(-1).isNegative()).isTrue();
+        Assertions.assertThat(big.multiply(-1).compareTo(max.multiply(-1))).isNegative();
+        Assertions.assertThat(big.compareTo(max)).isPositive();
+        Money wide = big.multiply(Long.MAX_VALUE);
+        Assertions.assertThat(wide.divide(Long.MAX_VALUE)).isEqualTo(big);
+        Assertions.assertThat(wide.divide(Long.MAX_VALUE)).hasSameHashCodeAs(big);
+        Assertions.assertThat(Money.of(big.toBigDecimal(), currency)).isEqualTo(big);
+        Assertions.assertThat(Money.of(big.toBigDecimal(), currency)).hasSameHashCodeAs(big);
+    }
+    
+    @Test
+    void ofDouble_roundingMode_test(){
+        Assertions.assertThat(Money.of(0.1, currency).toMinorUnits()).isEqualTo(10L);
+        Assertions.assertThat(Money.of(1.15, currency).toMinorUnits()).isEqualTo(115L);
+        Assertions.assertThat(Money.of(10.009, currency).toMinorUnits()).isEqualTo(1000L);
+        Assertions.assertThat(Money.of(-10.009, currency).toMinorUnits()).isEqualTo(-1000L);
+        Assertions.assertThat(Money.of(10.005, currency, RoundingMode.HALF_UP).toMinorUnits()).isEqualTo(1001L);
+        Assertions.assertThat(Money.of(10.005, currency, RoundingMode.HALF_EVEN).toMinorUnits()).isEqualTo(1000L);
+        Assertions.assertThat(Money.of(-10.001, currency, RoundingMode.FLOOR).toMinorUnits()).isEqualTo(-1001L);
+        Assertions.assertThat(Money.of(1e-30, currency, RoundingMode.UP).toMinorUnits()).isEqualTo(1L);
+        Assertions.assertThat(Money.of(1e20, currency).toBigDecimal()).isEqualByComparingTo(new BigDecimal("1E20"));
+        Assertions.assertThat(Money.of(0.1, Currency.of("JPY"), RoundingMode.CEILING).toMinorUnits()).isEqualTo(1L);
+        Assertions.assertThatCode(() -> Money.of(10.001, currency, RoundingMode.UNNECESSARY))
+                .isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatCode(() -> Money.of(Double.NaN, currency)).isInstanceOf(NumberFormatException.class);
+    }
 }
@@ -0,0 +1,80 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyBufferTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency jpy = Currency.of("JPY");
+
+    @Test
+    void setGet_test(){
+        MoneyBuffer buffer = MoneyBuffer.allocate(1000);
+        buffer.set(0, Money.of(12.34, eur));
+        buffer.set(999, Money.of(5000, jpy));
+        Assertions.assertThat(buffer.get(0)).isEqualTo(Money.of(12.34, eur));
+        Assertions.assertThat(buffer.get(999)).isEqualTo(Money.of(5000, jpy));
+        Assertions.assertThat(buffer.get(500)).isNull();
+        buffer.set(0, null);
+        Assertions.assertThat(buffer.get(0)).isNull();
+        Assertions.assertThatCode(() -> buffer.get(1000))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+        Assertions.assertThatCode(() -> buffer.set(-1, Money.of(1, eur)))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void cursor_test(){
+        MoneyBuffer buffer = MoneyBuffer.allocate(100);
+        MoneyBuffer.Cursor cursor = buffer.cursor();
+        for (int i = 0; i < buffer.capacity(); i++){
+            cursor.moveTo(i).set(i * 100L, eur);
+        }
+        for (int i = 0; i < buffer.capacity(); i++){
+            cursor.moveTo(i).add(1);
+        }
+        cursor.moveTo(42);
+        Assertions.assertThat(cursor.getCurrency()).isSameAs(eur);
+        Assertions.assertThat(cursor.getMinorUnits()).isEqualTo(4201L);
+        Assertions.assertThat(buffer.get(42)).isEqualTo(Money.ofMinor(4201, eur));
+        Assertions.assertThatCode(() -> cursor.add(Money.of(1, jpy)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+    }
+
+    @Test
+    void escapedValue_test(){
+        MoneyBuffer buffer = MoneyBuffer.allocate(2);
+        MoneyBuffer.Cursor cursor = buffer.cursor().moveTo(1).set(Long.MAX_VALUE, eur);
+        cursor.add(Long.MAX_VALUE);
+        Assertions.assertThat(cursor.isCompact()).isFalse();
+        Assertions.assertThat(cursor.toMoney()).isEqualTo(Money.ofMinor(Long.MAX_VALUE, eur).multiply(2));
+        Assertions.assertThatCode(() -> cursor.getMinorUnits())
+                .isInstanceOf(ArithmeticException.class);
+        cursor.add(-Long.MAX_VALUE);
+        Assertions.assertThat(cursor.isCompact()).isTrue();
+        Assertions.assertThat(cursor.getMinorUnits()).isEqualTo(Long.MAX_VALUE);
+        
+        Money huge = Money.ofMinor(Long.MIN_VALUE, eur).multiply(10);
+        buffer.set(0, huge);
+        Assertions.assertThat(buffer.get(0)).isEqualTo(huge);
+        buffer.set(0, Money.ofMinor(1, eur));
+        Assertions.assertThat(buffer.get(0)).isEqualTo(Money.ofMinor(1, eur));
+    }
+}
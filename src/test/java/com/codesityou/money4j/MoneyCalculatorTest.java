@@ -0,0 +1,68 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyCalculatorTest {
+
+    private final static Currency eur = Currency.of("EUR");
+
+    @Test
+    void chain_test(){
+        Money price = Money.of(19.99, eur);
+        Money discount = Money.of(5, eur);
+        Money shipping = Money.of(4.95, eur);
+        Money expected = price.multiply(3).minus(discount).plus(shipping);
+        Money result = MoneyCalculator.of(price).multiply(3).subtract(discount).add(shipping).toMoney();
+        Assertions.assertThat(result).isEqualTo(expected);
+        Assertions.assertThat(MoneyCalculator.of(eur).add(1050).subtract(50).toMoney()).isEqualTo(Money.of(10, eur));
+    }
+
+    @Test
+    void overflow_test(){
+        MoneyCalculator calculator = MoneyCalculator.of(eur).set(Long.MAX_VALUE).add(1).multiply(10);
+        Assertions.assertThat(calculator.toMoney().toBigDecimal())
+                .isEqualByComparingTo(new BigDecimal("92233720368547758.08").multiply(BigDecimal.TEN));
+        calculator.divide(10).subtract(1);
+        Assertions.assertThat(calculator.toMoney().toMinorUnits()).isEqualTo(Long.MAX_VALUE);
+        Assertions.assertThat(calculator.set(Long.MIN_VALUE).multiply(-1).toMoney().toBigDecimal())
+                .isEqualByComparingTo(new BigDecimal("92233720368547758.08"));
+        Assertions.assertThat(calculator.set(Long.MIN_VALUE).subtract(1).add(Money.ofMinor(1, eur)).toMoney().toMinorUnits())
+                .isEqualTo(Long.MIN_VALUE);
+    }
+
+    @Test
+    void divide_test(){
+        Assertions.assertThat(MoneyCalculator.of(eur).set(1999).multiply(19).divide(100, RoundingMode.HALF_UP).toMoney())
+                .isEqualTo(Money.of(3.80, eur));
+        Assertions.assertThat(MoneyCalculator.of(eur).set(-7).divide(2).toMoney()).isEqualTo(Money.ofMinor(-7, eur).divide(2));
+        Assertions.assertThat(MoneyCalculator.of(eur).set(-7).divide(-2, RoundingMode.HALF_EVEN).toMoney())
+                .isEqualTo(Money.ofMinor(4, eur));
+        Assertions.assertThatCode(() -> MoneyCalculator.of(eur).divide(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void differentCurrencies_test(){
+        Assertions.assertThatCode(() -> MoneyCalculator.of(eur).add(Money.of(1, Currency.of("USD"))))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+    }
+}
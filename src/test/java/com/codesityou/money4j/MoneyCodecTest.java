@@ -0,0 +1,162 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyCodecTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Money[] values = {
+        Money.zero(eur),
+        Money.of(1, eur),
+        Money.of(-12.34, Currency.of("USD")),
+        Money.of(1000000, Currency.of("JPY")),
+        Money.ofMinor(Long.MAX_VALUE, eur),
+        Money.ofMinor(Long.MIN_VALUE, eur),
+        Money.ofMinor(Long.MIN_VALUE, eur).multiply(1000),
+        Money.ofMinor(Long.MAX_VALUE, Currency.of("KWD")).multiply(Long.MAX_VALUE)
+    };
+
+    @Test
+    void byteBuffer_test(){
+        for (MoneyCodec codec : new MoneyCodec[]{MoneyCodec.FIXED, MoneyCodec.VARINT}){
+            for (Money money : values){
+                ByteBuffer buffer = ByteBuffer.allocate(codec.encodedSize(money));
+                codec.encode(money, buffer);
+                Assertions.assertThat(buffer.remaining()).isZero();
+                buffer.flip();
+                Assertions.assertThat(codec.decode(buffer)).isEqualTo(money);
+            }
+        }
+    }
+
+    @Test
+    void dataOutput_test() throws Exception {
+        for (MoneyCodec codec : new MoneyCodec[]{MoneyCodec.FIXED, MoneyCodec.VARINT}){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (Money money : values){
+                codec.encode(money, out);
+            }
+            Assertions.assertThat(bytes.size()).isEqualTo(codec.encodedSize(values) - 1);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            for (Money money : values){
+                Assertions.assertThat(codec.decode(in)).isEqualTo(money);
+            }
+        }
+    }
+
+    @Test
+    void encodedSize_test(){
+        Assertions.assertThat(MoneyCodec.FIXED.encodedSize(Money.of(1, eur))).isEqualTo(10);
+        Assertions.assertThat(MoneyCodec.VARINT.encodedSize(Money.of(1, eur))).isEqualTo(4);
+        Assertions.assertThat(MoneyCodec.VARINT.encodedSize(Money.ofMinor(-1, eur))).isEqualTo(3);
+    }
+
+    @Test
+    void encodeAll_test(){
+        ByteBuffer buffer = ByteBuffer.allocate(MoneyCodec.VARINT.encodedSize(values));
+        MoneyCodec.VARINT.encodeAll(values, buffer);
+        buffer.flip();
+        Assertions.assertThat(MoneyCodec.VARINT.decodeAll(buffer)).containsExactly((Object[]) values);
+    }
+
+    @Test
+    void encodeAll_dataOutput_test() throws Exception {
+        Money[] many = new Money[3000];
+        for (int i = 0; i < many.length; i++){
+            many[i] = values[i % values.length];
+        }
+        for (Money[] array : new Money[][]{values, many, new Money[0]}){
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            MoneyCodec.VARINT.encodeAll(array, new DataOutputStream(bytes));
+            Assertions.assertThat(bytes.size()).isEqualTo(MoneyCodec.VARINT.encodedSize(array));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            Assertions.assertThat(MoneyCodec.VARINT.decodeAll(in)).containsExactly((Object[]) array);
+        }
+        byte[] corrupted = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07};
+        Assertions.assertThatCode(() -> MoneyCodec.VARINT.decodeAll(new DataInputStream(new ByteArrayInputStream(corrupted))))
+                .isInstanceOf(EOFException.class);
+    }
+
+    @Test
+    void decode_unknownCurrency_test(){
+        ByteBuffer buffer = ByteBuffer.allocate(10);
+        buffer.putShort((short) 1).putLong(100).flip();
+        Assertions.assertThatCode(() -> MoneyCodec.FIXED.decode(buffer))
+                .isInstanceOf(UnknownCurrencyException.class);
+    }
+
+    @Test
+    void decode_invalidWideLength_test(){
+        for (int length : new int[]{0, 65, Integer.MAX_VALUE}){
+            ByteBuffer buffer = ByteBuffer.allocate(16);
+            buffer.putShort((short) (978 | 0x8000));
+            int count = length;
+            while ((count & ~0x7F) != 0){
+                buffer.put((byte) ((count & 0x7F) | 0x80));
+                count >>>= 7;
+            }
+            buffer.put((byte) count).putLong(1).flip();
+            byte[] bytes = new byte[buffer.remaining()];
+            buffer.duplicate().get(bytes);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            if (length == 0){
+                Assertions.assertThatCode(() -> MoneyCodec.VARINT.decode(buffer))
+                        .isInstanceOf(IllegalArgumentException.class);
+                Assertions.assertThatCode(() -> MoneyCodec.VARINT.decode(in))
+                        .isInstanceOf(StreamCorruptedException.class);
+            } else {
+                Assertions.assertThatCode(() -> MoneyCodec.VARINT.decode(buffer))
+                        .isInstanceOf(BufferUnderflowException.class);
+                Assertions.assertThatCode(() -> MoneyCodec.VARINT.decode(in))
+                        .isInstanceOf(EOFException.class);
+            }
+        }
+    }
+
+    @Test
+    void wideValueBeyond64Bytes_test() throws Exception {
+        Money[] wide = {
+            Money.of(new BigDecimal("1e200"), eur),
+            Money.valueOf(BigInteger.ONE.shiftLeft(40_000).negate(), eur)
+        };
+        for (Money money : wide){
+            ByteBuffer buffer = ByteBuffer.allocate(MoneyCodec.FIXED.encodedSize(money));
+            MoneyCodec.FIXED.encode(money, buffer);
+            buffer.flip();
+            Assertions.assertThat(MoneyCodec.FIXED.decode(buffer)).isEqualTo(money);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            MoneyCodec.VARINT.encode(money, new DataOutputStream(bytes));
+            Assertions.assertThat(bytes.size()).isEqualTo(MoneyCodec.VARINT.encodedSize(money));
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            Assertions.assertThat(MoneyCodec.VARINT.decode(in)).isEqualTo(money);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyCollectorsTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+
+    @Test
+    void summing_test(){
+        Money result = LongStream.rangeClosed(1, 100_000)
+                .mapToObj(i -> Money.ofMinor(i, eur))
+                .parallel()
+                .collect(MoneyCollectors.summing(eur));
+        Assertions.assertThat(result).isEqualTo(Money.ofMinor(5_000_050_000L, eur));
+    }
+
+    @Test
+    void summing_overflowsLongRange_test(){
+        Money result = LongStream.range(0, 1000)
+                .mapToObj(i -> Money.ofMinor(Long.MAX_VALUE, eur))
+                .parallel()
+                .collect(MoneyCollectors.summing(eur));
+        Assertions.assertThat(result).isEqualTo(Money.ofMinor(Long.MAX_VALUE, eur).multiply(1000));
+    }
+
+    @Test
+    void summing_differentCurrencies_test(){
+        Assertions.assertThatCode(() -> LongStream.range(0, 10)
+                    .mapToObj(i -> Money.ofMinor(i, (i == 5) ? usd : eur))
+                    .collect(MoneyCollectors.summing(eur)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+    }
+
+    @Test
+    void summingByCurrency_test(){
+        Map<Currency, Money> result = LongStream.range(0, 30_000)
+                .mapToObj(i -> Money.ofMinor(10, (i % 3 == 0) ? usd : eur))
+                .parallel()
+                .collect(MoneyCollectors.summingByCurrency());
+        Assertions.assertThat(result).hasSize(2);
+        Assertions.assertThat(result).containsEntry(usd, Money.ofMinor(100_000, usd));
+        Assertions.assertThat(result).containsEntry(eur, Money.ofMinor(200_000, eur));
+    }
+
+    @Test
+    void summingByCurrency_asDownstream_test(){
+        Map<Boolean, Map<Currency, Money>> result = LongStream.range(0, 10)
+                .mapToObj(i -> Money.ofMinor(i, (i % 2 == 0) ? usd : eur))
+                .collect(Collectors.partitioningBy(m -> m.isLessThan(Money.ofMinor(5, m.getCurrency())), 
+                        MoneyCollectors.summingByCurrency()));
+        Assertions.assertThat(result.get(true)).containsEntry(usd, Money.ofMinor(6, usd));
+        Assertions.assertThat(result.get(false)).containsEntry(eur, Money.ofMinor(21, eur));
+    }
+}
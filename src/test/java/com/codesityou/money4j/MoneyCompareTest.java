@@ -16,6 +16,9 @@
 
 package com.codesityou.money4j;
 
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.Set;
 import org.assertj.core.api.Assertions;
 import org.testng.annotations.Test;
 
@@ -73,4 +76,22 @@ class MoneyCompareTest {
         Assertions.assertThat(m1).isNotEqualTo(m3);
         Assertions.assertThat(m1).isEqualTo(m2);
     }
+
+    @Test
+    void hashCodeTest(){
+        Money m1 = Money.of(2000, eur);
+        Money m2 = Money.of(new BigDecimal("2000.00"), eur);
+        Assertions.assertThat(m1).hasSameHashCodeAs(m2);
+        Money wide1 = Money.of(new BigDecimal("99999999999999999999.99"), eur);
+        Money wide2 = Money.of(new BigDecimal("99999999999999999999.99"), eur);
+        Assertions.assertThat(wide1).hasSameHashCodeAs(wide2);
+        Set<Money> set = new HashSet<>();
+        set.add(m1);
+        set.add(m2);
+        set.add(Money.of(2000, usd));
+        set.add(wide1);
+        set.add(wide2);
+        Assertions.assertThat(set).hasSize(3);
+        Assertions.assertThat(set.contains(Money.ofMinor(200000, eur))).isTrue();
+    }
 }
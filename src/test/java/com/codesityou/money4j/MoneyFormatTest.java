@@ -0,0 +1,84 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.NumberFormat;
+import java.util.Locale;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyFormatTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+    private final static Currency jpy = Currency.of("JPY");
+
+    @Test
+    void beautify_test(){
+        Assertions.assertThat(Money.of(1000, eur).beautify()).isEqualTo("EUR 1.000,00");
+        Assertions.assertThat(Money.of(-1234567.89, usd).beautify()).isEqualTo("USD -1,234,567.89");
+        Assertions.assertThat(Money.of(1234567, jpy).beautify()).isEqualTo("JPY 1,234,567");
+        Assertions.assertThat(Money.ofMinor(5, eur).beautify()).isEqualTo("EUR 0,05");
+        Assertions.assertThat(Money.zero(eur).beautify()).isEqualTo("EUR 0,00");
+    }
+
+    @Test
+    void beautify_withLocale_test(){
+        Money m = Money.of(1000.5, eur);
+        Assertions.assertThat(m.beautify(Locale.US)).isEqualTo("EUR 1,000.50");
+        Assertions.assertThat(m.beautify(Locale.GERMANY)).isEqualTo(m.beautify());
+    }
+
+    @Test
+    void beautify_sameAsNumberFormat_test(){
+        long[] values = {0, 7, -7, 100, 123456789, -987654321012L, Long.MAX_VALUE, Long.MIN_VALUE};
+        Locale[] locales = {Locale.US, Locale.FRANCE, new Locale("de", "CH"), new Locale("hi", "IN"), new Locale("ar", "SA")};
+        for (Locale locale : locales){
+            for (long value : values){
+                Money m = Money.ofMinor(value, eur);
+                NumberFormat nf = NumberFormat.getInstance(locale);
+                nf.setMinimumFractionDigits(2);
+                nf.setMaximumFractionDigits(2);
+                String expected = "EUR " + nf.format(new BigDecimal(BigInteger.valueOf(value), 2));
+                Assertions.assertThat(m.beautify(locale)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void beautify_outOfLongRange_test(){
+        Money m = Money.ofMinor(Long.MAX_VALUE, usd).multiply(10);
+        Assertions.assertThat(m.beautify()).isEqualTo("USD 922,337,203,685,477,580.70");
+        Assertions.assertThat(m.multiply(-1).beautify()).isEqualTo("USD -922,337,203,685,477,580.70");
+    }
+
+    @Test
+    void appendTo_test() throws Exception {
+        StringWriter writer = new StringWriter();
+        Money.of(12.5, usd).appendTo(writer);
+        writer.append("; ");
+        Money.of(12.5, usd).appendTo(writer, Locale.GERMANY);
+        Assertions.assertThat(writer.toString()).isEqualTo("USD 12.50; USD 12,50");
+        
+        StringBuilder sb = new StringBuilder("Total: ");
+        Assertions.assertThat(Money.of(99.99, eur).appendTo(sb)).isSameAs(sb);
+        Assertions.assertThat(sb.toString()).isEqualTo("Total: EUR 99,99");
+    }
+}
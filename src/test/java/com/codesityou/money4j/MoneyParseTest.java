@@ -0,0 +1,88 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyParseTest {
+
+    private final static Currency eur = Currency.of("EUR");
+
+    @Test
+    void parse_test(){
+        Assertions.assertThat(Money.parse("EUR 1234.56")).isEqualTo(Money.ofMinor(123456, eur));
+        Assertions.assertThat(Money.parse("EUR -1234.5")).isEqualTo(Money.ofMinor(-123450, eur));
+        Assertions.assertThat(Money.parse("EUR 12")).isEqualTo(Money.ofMinor(1200, eur));
+        Assertions.assertThat(Money.parse("JPY 1000")).isEqualTo(Money.ofMinor(1000, Currency.of("JPY")));
+        Assertions.assertThat(Money.parse("KWD 1.234")).isEqualTo(Money.ofMinor(1234, Currency.of("KWD")));
+    }
+
+    @Test
+    void parse_range_test(){
+        String line = "id=7;amount=10.99;";
+        Money m = Money.parse(line, 12, 17, Currency.of("USD"));
+        Assertions.assertThat(m).isEqualTo(Money.ofMinor(1099, Currency.of("USD")));
+    }
+
+    @Test
+    void parse_outOfLongRange_test(){
+        Money max = Money.parse("EUR 92233720368547758.07");
+        Assertions.assertThat(max.toMinorUnits()).isEqualTo(Long.MAX_VALUE);
+        Money min = Money.parse("EUR -92233720368547758.08");
+        Assertions.assertThat(min.toMinorUnits()).isEqualTo(Long.MIN_VALUE);
+        Money wide = Money.parse("EUR 999999999999999999999999.99");
+        Assertions.assertThat(wide.toBigDecimal()).isEqualByComparingTo(new BigDecimal("999999999999999999999999.99"));
+    }
+
+    @Test
+    void parse_tooManyDecimalDigits_test(){
+        Assertions.assertThatCode(() -> Money.parse("EUR 1.234"))
+                .isInstanceOf(NumberFormatException.class);
+        Assertions.assertThatCode(() -> Money.parse("JPY 1.0"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void parse_invalidText_test(){
+        String[] invalid = {"", "EUR", "EUR ", "EUR1.00", "EUR 1.", "EUR .5", "EUR -", "EUR 1,00", "EUR 1.2.3", "EUR  1"};
+        for (String text : invalid){
+            Assertions.assertThatCode(() -> Money.parse(text))
+                    .isInstanceOf(NumberFormatException.class);
+        }
+        Assertions.assertThatCode(() -> Money.parse("XYZ 1.00"))
+                .isInstanceOf(UnknownCurrencyException.class);
+        Assertions.assertThatCode(() -> Money.parse("EUR 1.234"))
+                .hasMessageContaining("more than 2 decimal digits");
+        Assertions.assertThatCode(() -> Money.parse("EUR 1.2x3"))
+                .hasMessageContaining("Unable to parse an amount");
+    }
+
+    @Test
+    void tryParse_test(){
+        Assertions.assertThat(Money.tryParse("EUR -1234.5")).isEqualTo(Money.ofMinor(-123450, Currency.of("EUR")));
+        Assertions.assertThat(Money.tryParse("id=7;amount=10.99", 12, 17, Currency.of("USD")))
+                .isEqualTo(Money.ofMinor(1099, Currency.of("USD")));
+        String[] invalid = {"", "EUR", "EUR1.00", "EUR 1.", "EUR 1,00", "EUR 1.234", "XYZ 1.00"};
+        for (String text : invalid){
+            Assertions.assertThat(Money.tryParse(text)).isNull();
+        }
+        Assertions.assertThatCode(() -> Money.tryParse("EUR 1", 4, 6, Currency.of("EUR")))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneySerializationTest {
+
+    private final static Currency eur = Currency.of("EUR");
+
+    @Test
+    void serialization_test() throws Exception {
+        Money[] values = {Money.of(12.34, eur), Money.ofMinor(Long.MIN_VALUE, eur).multiply(3), Money.zero(Currency.of("JPY"))};
+        for (Money money : values){
+            Money result = (Money) deserialize(serialize(money));
+            Assertions.assertThat(result).isEqualTo(money);
+            Assertions.assertThat(result.getCurrency()).isSameAs(money.getCurrency());
+        }
+    }
+
+    @Test
+    void serialization_beyond511Bits_test() throws Exception {
+        Money[] values = {Money.of(new BigDecimal("1e200"), eur), Money.of(new BigDecimal("-1e200"), eur).multiply(Long.MAX_VALUE)};
+        for (Money money : values){
+            Assertions.assertThat(money.toBigInteger().bitLength()).isGreaterThan(511);
+            Assertions.assertThat(deserialize(serialize(money))).isEqualTo(money);
+        }
+    }
+
+    @Test
+    void serialization_size_test() throws Exception {
+        Assertions.assertThat(serialize(Money.of(12.34, eur)).length).isLessThan(64);
+        Assertions.assertThat(serialize(eur).length).isLessThan(64);
+    }
+
+    @Test
+    void serialization_currency_test() throws Exception {
+        Assertions.assertThat(deserialize(serialize(eur))).isSameAs(eur);
+    }
+
+    private static byte[] serialize(Object object) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)){
+            out.writeObject(object);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws Exception {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))){
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class MoneyVectorTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+
+    @Test
+    void append_test(){
+        MoneyVector vector = MoneyVector.of(eur, 2);
+        for (int i = 0; i < 100; i++){
+            vector.append(Money.ofMinor(i, eur));
+        }
+        Assertions.assertThat(vector.size()).isEqualTo(100);
+        Assertions.assertThat(vector.get(42)).isEqualTo(Money.ofMinor(42, eur));
+        Assertions.assertThat(vector.getMinorUnits(99)).isEqualTo(99L);
+        Assertions.assertThatCode(() -> vector.append(Money.ofMinor(1, usd)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+        Assertions.assertThatCode(() -> vector.get(100))
+                .isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    @Test
+    void mixed_test(){
+        MoneyVector vector = MoneyVector.mixed()
+                .append(Money.of(10, eur))
+                .append(Money.of(20, usd));
+        Assertions.assertThat(vector.isMixed()).isTrue();
+        Assertions.assertThat(vector.get(0)).isEqualTo(Money.of(10, eur));
+        Assertions.assertThat(vector.get(1)).isEqualTo(Money.of(20, usd));
+        Assertions.assertThat(vector.getCurrency(1)).isSameAs(usd);
+    }
+
+    @Test
+    void slice_test(){
+        MoneyVector vector = MoneyVector.mixed();
+        for (int i = 0; i < 10; i++){
+            vector.append(i, (i % 2 == 0) ? eur : usd);
+        }
+        MoneyVector slice = vector.slice(3, 6);
+        Assertions.assertThat(slice.size()).isEqualTo(3);
+        Assertions.assertThat(slice.get(0)).isEqualTo(Money.ofMinor(3, usd));
+        Assertions.assertThat(slice.get(2)).isEqualTo(Money.ofMinor(5, usd));
+    }
+
+    @Test
+    void plusMinus_test(){
+        MoneyVector a = MoneyVector.of(eur).append(100, eur).append(250, eur);
+        MoneyVector b = MoneyVector.mixed().append(1, eur).append(50, eur);
+        MoneyVector sum = a.plus(b);
+        Assertions.assertThat(sum.get(0)).isEqualTo(Money.ofMinor(101, eur));
+        Assertions.assertThat(sum.get(1)).isEqualTo(Money.ofMinor(300, eur));
+        MoneyVector difference = a.minus(b);
+        Assertions.assertThat(difference.get(1)).isEqualTo(Money.ofMinor(200, eur));
+        
+        MoneyVector c = MoneyVector.mixed().append(1, eur).append(50, usd);
+        Assertions.assertThatCode(() -> a.plus(c))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+        Assertions.assertThatCode(() -> a.plus(MoneyVector.of(eur)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void plusMinus_emptyVectors_test(){
+        Assertions.assertThat(MoneyVector.of(eur).plus(MoneyVector.of(eur)).size()).isEqualTo(0);
+        Assertions.assertThat(MoneyVector.of(eur).plus(MoneyVector.mixed()).size()).isEqualTo(0);
+        Assertions.assertThatCode(() -> MoneyVector.of(eur).plus(MoneyVector.of(usd)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+        Assertions.assertThatCode(() -> MoneyVector.of(eur).minus(MoneyVector.of(usd)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+    }
+
+    @Test
+    void multiply_test(){
+        MoneyVector prices = MoneyVector.of(usd).append(199, usd).append(1000, usd);
+        Assertions.assertThat(prices.multiply(3).get(0)).isEqualTo(Money.ofMinor(597, usd));
+        MoneyVector totals = prices.multiply(new long[]{2, 5});
+        Assertions.assertThat(totals.get(1)).isEqualTo(Money.ofMinor(5000, usd));
+        Assertions.assertThatCode(() -> prices.multiply(Long.MAX_VALUE))
+                .isInstanceOf(ArithmeticException.class);
+    }
+}
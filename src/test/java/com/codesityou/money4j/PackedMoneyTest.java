@@ -0,0 +1,76 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class PackedMoneyTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+
+    @Test
+    void of_test(){
+        long packed = PackedMoney.of(Money.of(-10.99, eur));
+        Assertions.assertThat(PackedMoney.currencyOf(packed)).isSameAs(eur);
+        Assertions.assertThat(PackedMoney.amountOf(packed)).isEqualTo(-1099L);
+        Assertions.assertThat(PackedMoney.toMoney(packed)).isEqualTo(Money.of(-10.99, eur));
+        Assertions.assertThat(PackedMoney.of(1099, eur)).isNotEqualTo(PackedMoney.of(1099, usd));
+        Assertions.assertThat(PackedMoney.of(0, eur)).isNotEqualTo(0L);
+    }
+
+    @Test
+    void plusAndMinus_test(){
+        long a = PackedMoney.of(1099, eur);
+        long b = PackedMoney.of(-2000, eur);
+        Assertions.assertThat(PackedMoney.plus(a, b)).isEqualTo(PackedMoney.of(-901, eur));
+        Assertions.assertThat(PackedMoney.minus(a, b)).isEqualTo(PackedMoney.of(3099, eur));
+        Assertions.assertThat(PackedMoney.minus(b, b)).isEqualTo(PackedMoney.of(0, eur));
+        Assertions.assertThat(PackedMoney.compare(a, b)).isPositive();
+        Assertions.assertThat(PackedMoney.compare(b, a)).isNegative();
+        Assertions.assertThat(PackedMoney.compare(a, a)).isZero();
+    }
+
+    @Test
+    void checks_test(){
+        long max = PackedMoney.of(PackedMoney.MAX_AMOUNT, eur);
+        long min = PackedMoney.of(PackedMoney.MIN_AMOUNT, eur);
+        long one = PackedMoney.of(1, eur);
+        Assertions.assertThatCode(() -> PackedMoney.plus(max, one)).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatCode(() -> PackedMoney.minus(min, one)).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThatCode(() -> PackedMoney.plus(one, PackedMoney.of(1, usd)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+        Assertions.assertThatCode(() -> PackedMoney.compare(one, PackedMoney.of(1, usd)))
+                .isInstanceOf(CurrenciesDontMatchException.class);
+        Assertions.assertThatCode(() -> PackedMoney.of(Long.MAX_VALUE, eur)).isInstanceOf(ArithmeticException.class);
+        Assertions.assertThat(PackedMoney.fits(Money.ofMinor(Long.MIN_VALUE, eur))).isFalse();
+    }
+
+    @Test
+    void hash_test(){
+        // consecutive amounts should spread over buckets of a small table
+        int buckets = 64;
+        int[] counts = new int[buckets];
+        for (int i = 0; i < buckets * 100; i++) {
+            counts[PackedMoney.hash(PackedMoney.of(i * 100, eur)) & (buckets - 1)]++;
+        }
+        for (int count : counts) {
+            Assertions.assertThat(count).isBetween(50, 150);
+        }
+    }
+}
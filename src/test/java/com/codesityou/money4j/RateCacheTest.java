@@ -0,0 +1,206 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class RateCacheTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+    private final static Currency gbp = Currency.of("GBP");
+    private final static Currency jpy = Currency.of("JPY");
+    private final static Currency chf = Currency.of("CHF");
+
+    @Test
+    void getRate_cachedUntilExpired_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")));
+        AtomicInteger loads = new AtomicInteger();
+        MutableClock clock = new MutableClock();
+        RateCache cache = RateCache.builder((from, to) -> {
+            loads.incrementAndGet();
+            return rates.getRate(from, to);
+        }).ttl(Duration.ofSeconds(10)).clock(clock).build();
+        Assertions.assertThat(cache.getRate(eur, usd).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(cache.getRate(eur, usd).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(loads.get()).isEqualTo(1);
+        rates.put(Rate.of(eur, usd, new BigDecimal("1.09")));
+        clock.advance(Duration.ofSeconds(10));
+        Assertions.assertThat(cache.getRate(eur, usd).getValue()).isEqualByComparingTo(new BigDecimal("1.09"));
+        Assertions.assertThat(loads.get()).isEqualTo(2);
+        Assertions.assertThat(cache.getHitCount()).isEqualTo(1L);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(2L);
+        Assertions.assertThat(cache.getEvictionCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void getRate_pairTtl_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(eur, usd, new BigDecimal("1.0854")))
+                .put(Rate.of(eur, jpy, new BigDecimal("162.45")));
+        MutableClock clock = new MutableClock();
+        RateCache cache = RateCache.builder(rates).ttl(Duration.ofMinutes(1)).ttl(eur, jpy, Duration.ofSeconds(1))
+                .clock(clock).build();
+        cache.getRate(eur, usd);
+        cache.getRate(eur, jpy);
+        rates.put(Rate.of(eur, usd, new BigDecimal("1.09"))).put(Rate.of(eur, jpy, new BigDecimal("163")));
+        clock.advance(Duration.ofSeconds(2));
+        Assertions.assertThat(cache.getRate(eur, usd).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(cache.getRate(eur, jpy).getValue()).isEqualByComparingTo(new BigDecimal("163"));
+    }
+
+    @Test
+    void getRate_inverseAndCross_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(eur, gbp, new BigDecimal("0.85")))
+                .put(Rate.of(eur, jpy, new BigDecimal("162")));
+        RateCache cache = RateCache.builder(rates).build();
+        Assertions.assertThat(cache.getRate(gbp, eur).getValue()).isEqualByComparingTo(new BigDecimal("1.1764705882"));
+        Rate cross = cache.getRate(gbp, jpy);
+        Assertions.assertThat(cross.getFrom()).isSameAs(gbp);
+        Assertions.assertThat(cross.getTo()).isSameAs(jpy);
+        Assertions.assertThat(cross.getValue()).isEqualByComparingTo(new BigDecimal("190.5882352941"));
+        Assertions.assertThat(cache.getRate(jpy, gbp).getValue()).isEqualByComparingTo(new BigDecimal("0.0052469136"));
+        Assertions.assertThat(cache.getRate(gbp, gbp).getValue()).isEqualByComparingTo(BigDecimal.ONE);
+    }
+
+    @Test
+    void getRate_crossMemoizedUntilLegChanges_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(eur, gbp, new BigDecimal("0.85")))
+                .put(Rate.of(eur, jpy, new BigDecimal("162")));
+        RateCache cache = RateCache.builder(rates).build();
+        Rate cross = cache.getRate(gbp, jpy);
+        Assertions.assertThat(cache.getRate(gbp, jpy)).isSameAs(cross);
+        rates.put(Rate.of(eur, jpy, new BigDecimal("170")));
+        cache.invalidate(eur, jpy);
+        Assertions.assertThat(cache.getRate(gbp, jpy).getValue()).isEqualByComparingTo(new BigDecimal("200"));
+    }
+
+    @Test
+    void getRate_secondPivot_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(usd, chf, new BigDecimal("0.8")))
+                .put(Rate.of(jpy, usd, new BigDecimal("0.0064")));
+        RateCache cache = RateCache.builder(rates).build();
+        Assertions.assertThat(cache.getRate(chf, jpy).getValue()).isEqualByComparingTo(new BigDecimal("195.3125"));
+    }
+
+    @Test
+    void getRate_rerouteWhenLegIsNotPublished_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(gbp, jpy, new BigDecimal("190")))
+                .put(Rate.of(eur, gbp, new BigDecimal("0.85")))
+                .put(Rate.of(eur, jpy, new BigDecimal("162")));
+        RateCache cache = RateCache.builder(rates).build();
+        Assertions.assertThat(cache.getRate(gbp, jpy).getValue()).isEqualByComparingTo(new BigDecimal("190"));
+        rates.remove(gbp, jpy);
+        cache.invalidateAll();
+        Assertions.assertThat(cache.getRate(gbp, jpy).getValue()).isEqualByComparingTo(new BigDecimal("190.5882352941"));
+    }
+
+    @Test
+    void getRate_unknownRate_test(){
+        RateCache cache = RateCache.builder(new InMemoryRateProvider().put(Rate.of(eur, usd, BigDecimal.ONE))).build();
+        Assertions.assertThatCode(() -> cache.getRate(gbp, jpy)).isInstanceOf(UnknownRateException.class);
+    }
+
+    @Test
+    void maximumSize_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(eur, usd, new BigDecimal("1.0854")))
+                .put(Rate.of(eur, gbp, new BigDecimal("0.85")))
+                .put(Rate.of(eur, jpy, new BigDecimal("162")));
+        RateCache cache = RateCache.builder(rates).maximumSize(2).build();
+        cache.getRate(eur, usd);
+        cache.getRate(eur, gbp);
+        cache.getRate(eur, usd);
+        cache.getRate(eur, jpy);
+        Assertions.assertThat(cache.getEvictionCount()).isEqualTo(1L);
+        long misses = cache.getMissCount();
+        cache.getRate(eur, usd);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(misses);
+        cache.getRate(eur, gbp);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(misses + 1);
+        Assertions.assertThat(cache.getRate(gbp, jpy).getValue()).isEqualByComparingTo(new BigDecimal("190.5882352941"));
+    }
+
+    @Test
+    void getRate_slowProviderDoesNotBlockHits_test() throws Exception {
+        InMemoryRateProvider rates = new InMemoryRateProvider()
+                .put(Rate.of(eur, usd, new BigDecimal("1.0854")))
+                .put(Rate.of(eur, jpy, new BigDecimal("162")));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        RateCache cache = RateCache.builder((from, to) -> {
+            if (to == jpy) {
+                loads.incrementAndGet();
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+            return rates.getRate(from, to);
+        }).build();
+        cache.getRate(eur, usd);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Rate> first = executor.submit(() -> cache.getRate(eur, jpy));
+            Assertions.assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Future<Rate> second = executor.submit(() -> cache.getRate(eur, jpy));
+            Assertions.assertThat(cache.getRate(eur, usd).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+            Assertions.assertThat(cache.getHitCount()).isEqualTo(1L);
+            release.countDown();
+            Assertions.assertThat(first.get(5, TimeUnit.SECONDS).getValue()).isEqualByComparingTo(new BigDecimal("162"));
+            Assertions.assertThat(second.get(5, TimeUnit.SECONDS).getValue()).isEqualByComparingTo(new BigDecimal("162"));
+            Assertions.assertThat(loads.get()).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void getRate_notPublishedExpires_test(){
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, gbp, new BigDecimal("0.8")));
+        MutableClock clock = new MutableClock();
+        RateCache cache = RateCache.builder(rates).ttl(Duration.ofMinutes(1)).ttl(gbp, eur, Duration.ofSeconds(10))
+                .clock(clock).build();
+        Assertions.assertThat(cache.getRate(gbp, eur).getValue()).isEqualByComparingTo(new BigDecimal("1.25"));
+        Assertions.assertThatCode(() -> cache.getRate(usd, jpy)).isInstanceOf(UnknownRateException.class);
+        long misses = cache.getMissCount();
+        Assertions.assertThatCode(() -> cache.getRate(usd, jpy)).isInstanceOf(UnknownRateException.class);
+        Assertions.assertThat(cache.getMissCount()).isEqualTo(misses);
+        rates.put(Rate.of(gbp, eur, new BigDecimal("1.2"))).put(Rate.of(usd, jpy, new BigDecimal("150")));
+        clock.advance(Duration.ofSeconds(10));
+        Assertions.assertThat(cache.getRate(gbp, eur).getValue()).isEqualByComparingTo(new BigDecimal("1.2"));
+        Assertions.assertThatCode(() -> cache.getRate(usd, jpy)).isInstanceOf(UnknownRateException.class);
+        clock.advance(Duration.ofMinutes(1));
+        Assertions.assertThat(cache.getRate(usd, jpy).getValue()).isEqualByComparingTo(new BigDecimal("150"));
+    }
+}
@@ -0,0 +1,183 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class RateLoaderTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency usd = Currency.of("USD");
+    private final static Currency gbp = Currency.of("GBP");
+
+    @Test
+    void getRate_coalescesConcurrentLoads_test() throws Exception {
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            RateLoader loader = RateLoader.builder((from, to) -> {
+                loads.incrementAndGet();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return rates.getRate(from, to);
+            }).executor(executor).build();
+            List<CompletableFuture<Rate>> results = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                results.add(loader.getRate(eur, usd));
+            }
+            release.countDown();
+            for (CompletableFuture<Rate> result : results) {
+                Assertions.assertThat(result.get()).isEqualTo(Rate.of(eur, usd, new BigDecimal("1.0854")));
+            }
+            Assertions.assertThat(loads.get()).isEqualTo(1);
+            Assertions.assertThat(loader.getRate(eur, usd).isDone()).isTrue();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void getRate_expired_test() throws Exception {
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")));
+        MutableClock clock = new MutableClock();
+        RateLoader loader = RateLoader.builder(rates).executor(Runnable::run).ttl(Duration.ofSeconds(10)).clock(clock).build();
+        Assertions.assertThat(loader.getRate(eur, usd).get().getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        rates.put(Rate.of(eur, usd, new BigDecimal("1.09")));
+        clock.advance(Duration.ofSeconds(9));
+        Assertions.assertThat(loader.getRate(eur, usd).get().getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        clock.advance(Duration.ofSeconds(1));
+        Assertions.assertThat(loader.getRate(eur, usd).get().getValue()).isEqualByComparingTo(new BigDecimal("1.09"));
+    }
+
+    @Test
+    void getRate_refreshAhead_test() throws Exception {
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")));
+        MutableClock clock = new MutableClock();
+        List<Runnable> tasks = new ArrayList<>();
+        RateLoader loader = RateLoader.builder(rates).executor(tasks::add).clock(clock)
+                .ttl(Duration.ofSeconds(10)).refreshAfter(Duration.ofSeconds(8)).build();
+        CompletableFuture<Rate> first = loader.getRate(eur, usd);
+        tasks.remove(0).run();
+        Assertions.assertThat(first.get().getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        rates.put(Rate.of(eur, usd, new BigDecimal("1.09")));
+        clock.advance(Duration.ofSeconds(8));
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(tasks.size()).isEqualTo(1);
+        tasks.remove(0).run();
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.09"));
+    }
+
+    @Test
+    void getRate_expiredServedDuringReload_test() throws Exception {
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")));
+        MutableClock clock = new MutableClock();
+        List<Runnable> tasks = new ArrayList<>();
+        RateLoader loader = RateLoader.builder(rates).executor(tasks::add).clock(clock).ttl(Duration.ofSeconds(10)).build();
+        CompletableFuture<Rate> first = loader.getRate(eur, usd);
+        Assertions.assertThat(first.isDone()).isFalse();
+        tasks.remove(0).run();
+        Assertions.assertThat(first.get().getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        rates.put(Rate.of(eur, usd, new BigDecimal("1.09")));
+        clock.advance(Duration.ofSeconds(15));
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(tasks.size()).isEqualTo(1);
+        tasks.remove(0).run();
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.09"));
+        rates.remove(eur, usd);
+        clock.advance(Duration.ofSeconds(15));
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.09"));
+        tasks.remove(0).run();
+        CompletableFuture<Rate> unknown = loader.getRate(eur, usd);
+        Assertions.assertThat(unknown.isDone()).isFalse();
+        tasks.remove(0).run();
+        Assertions.assertThatCode(() -> unknown.get()).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    void getRate_staleRateIsBounded_test() throws Exception {
+        InMemoryRateProvider rates = new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")));
+        AtomicInteger failures = new AtomicInteger();
+        MutableClock clock = new MutableClock();
+        List<Runnable> tasks = new ArrayList<>();
+        RateLoader loader = RateLoader.builder((from, to) -> {
+            if (failures.get() > 0) {
+                failures.decrementAndGet();
+                throw new IllegalStateException("Provider is down");
+            }
+            return rates.getRate(from, to);
+        }).executor(tasks::add).clock(clock).ttl(Duration.ofSeconds(10)).maxStale(Duration.ofSeconds(5)).build();
+        loader.getRate(eur, usd);
+        tasks.remove(0).run();
+        // within the maximum staleness, the expired rate is served, until its reload fails
+        failures.set(2);
+        clock.advance(Duration.ofSeconds(12));
+        Assertions.assertThat(loader.getRate(eur, usd).getNow(null).getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        tasks.remove(0).run();
+        CompletableFuture<Rate> failed = loader.getRate(eur, usd);
+        Assertions.assertThat(failed.isDone()).isFalse();
+        tasks.remove(0).run();
+        Assertions.assertThatCode(() -> failed.get()).isInstanceOf(ExecutionException.class);
+        // a successful reload serves the new rate
+        CompletableFuture<Rate> reloaded = loader.getRate(eur, usd);
+        tasks.remove(0).run();
+        Assertions.assertThat(reloaded.get().getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        // beyond the maximum staleness, requests wait for the reload
+        clock.advance(Duration.ofSeconds(15));
+        CompletableFuture<Rate> waiting = loader.getRate(eur, usd);
+        Assertions.assertThat(waiting.isDone()).isFalse();
+        tasks.remove(0).run();
+        Assertions.assertThat(waiting.get().getValue()).isEqualByComparingTo(new BigDecimal("1.0854"));
+        Assertions.assertThat(tasks).isEmpty();
+    }
+
+    @Test
+    void getRate_defaultExecutor_test() throws Exception {
+        RateLoader loader = RateLoader.builder(new InMemoryRateProvider().put(Rate.of(eur, usd, new BigDecimal("1.0854")))).build();
+        Assertions.assertThat(loader.getRate(eur, usd).get(5, TimeUnit.SECONDS).getValue())
+                .isEqualByComparingTo(new BigDecimal("1.0854"));
+    }
+
+    @Test
+    void getRate_unknownRate_test(){
+        RateLoader loader = RateLoader.builder(new InMemoryRateProvider()).executor(Runnable::run).build();
+        Assertions.assertThatCode(() -> loader.getRate(eur, gbp).get()).isInstanceOf(ExecutionException.class);
+        Assertions.assertThatCode(() -> loader.getRate(eur, gbp).join().getValue())
+                .hasMessageContaining(UnknownRateException.class.getName());
+        Assertions.assertThatCode(() -> RateLoader.builder(new InMemoryRateProvider())
+                .ttl(Duration.ofSeconds(1)).refreshAfter(Duration.ofSeconds(1)).build())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,50 @@
+/**
+ * Copyright 2020 Iurii Mednikov @ https://www.iuriimednikov.com
+ * 
+ * Licensed under the GPL v3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the license at:
+ * https://www.gnu.org/licenses/gpl-3.0
+ * 
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.codesityou.money4j;
+
+import java.math.BigDecimal;
+import org.assertj.core.api.Assertions;
+import org.testng.annotations.Test;
+
+class RateTest {
+
+    private final static Currency eur = Currency.of("EUR");
+    private final static Currency gbp = Currency.of("GBP");
+    private final static Currency jpy = Currency.of("JPY");
+
+    @Test
+    void of_test(){
+        Rate rate = Rate.of(eur, jpy, new BigDecimal("162.45710000004"));
+        Assertions.assertThat(rate.getFixedPointValue()).isEqualTo(1624571000000L);
+        Assertions.assertThat(rate.getValue()).isEqualByComparingTo(new BigDecimal("162.4571"));
+        Assertions.assertThat(rate).isEqualTo(Rate.ofFixedPoint(eur, jpy, 1624571000000L));
+        Assertions.assertThat(rate).isNotEqualTo(Rate.ofFixedPoint(jpy, eur, 1624571000000L));
+        Assertions.assertThatCode(() -> Rate.of(eur, jpy, new BigDecimal("0.00000000001")))
+                .isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThatCode(() -> Rate.ofFixedPoint(eur, jpy, -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void inverseAndCross_test(){
+        Rate eurGbp = Rate.of(eur, gbp, new BigDecimal("0.8"));
+        Rate eurJpy = Rate.of(eur, jpy, new BigDecimal("162"));
+        Assertions.assertThat(eurGbp.inverse()).isEqualTo(Rate.of(gbp, eur, new BigDecimal("1.25")));
+        Assertions.assertThat(eurGbp.inverse().cross(eurJpy)).isEqualTo(Rate.of(gbp, jpy, new BigDecimal("202.5")));
+        Assertions.assertThatCode(() -> eurGbp.cross(eurJpy)).isInstanceOf(IllegalArgumentException.class);
+    }
+}